@@ -0,0 +1,78 @@
+package com.user.nisum.benchmark;
+
+import com.user.nisum.service.VerifiedToken;
+import com.user.nisum.service.impl.Hs256JwtCodec;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emisión y verificación de un token con nuestros claims: jjwt genérico frente a Hs256JwtCodec.
+ * Correr con -prof gc para comparar también los bytes asignados por operación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtCodecBenchmark {
+
+    private static final byte[] SECRET = "miClaveSecretaSuperSeguraParaJWT2024".getBytes(StandardCharsets.UTF_8);
+
+    private SecretKey key;
+    private JwtParser parser;
+    private Hs256JwtCodec codec;
+    private String subject;
+    private String jti;
+    private long issuedAt;
+    private long expiration;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        key = Keys.hmacShaKeyFor(SECRET);
+        parser = Jwts.parser().verifyWith(key).build();
+        codec = new Hs256JwtCodec(SECRET);
+        subject = UUID.randomUUID().toString();
+        jti = UUID.randomUUID().toString();
+        issuedAt = System.currentTimeMillis() / 1000;
+        expiration = issuedAt + 86400;
+        token = codec.encode(subject, "jose.valdez@empresa.com", jti, issuedAt, expiration);
+    }
+
+    @Benchmark
+    public String encodeJjwt() {
+        return Jwts.builder()
+                .claim("email", "jose.valdez@empresa.com")
+                .subject(subject)
+                .id(jti)
+                .issuedAt(new Date(issuedAt * 1000))
+                .expiration(new Date(expiration * 1000))
+                .signWith(key, Jwts.SIG.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public String encodeCodec() {
+        return codec.encode(subject, "jose.valdez@empresa.com", jti, issuedAt, expiration);
+    }
+
+    @Benchmark
+    public Claims decodeJjwt() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public VerifiedToken decodeCodec() {
+        return codec.decode(token);
+    }
+}
@@ -0,0 +1,52 @@
+package com.user.nisum.benchmark;
+
+import com.user.nisum.service.impl.JwtServiceImpl;
+import com.user.nisum.service.impl.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emisión y verificación de tokens en JwtServiceImpl.
+ * claimsCacheSize = 0 mide el costo completo de parseo + HMAC en cada llamada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    @Param({"10000", "0"})
+    private long claimsCacheSize;
+
+    private JwtServiceImpl jwtService;
+    private UUID userId;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtService = new JwtServiceImpl("miClaveSecretaSuperSeguraParaJWT2024", 86400000L,
+                new VerifiedTokenCache(claimsCacheSize, new SimpleMeterRegistry()));
+        userId = UUID.randomUUID();
+        token = jwtService.generateToken(userId, "jose.valdez@empresa.com");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(userId, "jose.valdez@empresa.com");
+    }
+
+    @Benchmark
+    public String extractEmail() {
+        return jwtService.extractEmail(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token);
+    }
+}
@@ -0,0 +1,24 @@
+package com.user.nisum.benchmark;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Agrega una espera fija antes de cada sentencia SQL para simular el round-trip
+ * de red a una base remota, que H2 en memoria no tiene.
+ */
+public class SimulatedLatencyStatementInspector implements StatementInspector {
+
+    static volatile long latencyMs;
+
+    @Override
+    public String inspect(String sql) {
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return sql;
+    }
+}
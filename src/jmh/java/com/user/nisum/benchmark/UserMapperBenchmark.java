@@ -0,0 +1,65 @@
+package com.user.nisum.benchmark;
+
+import com.user.nisum.dtos.UserRegistrationResponseDTO;
+import com.user.nisum.entity.Phone;
+import com.user.nisum.entity.User;
+import com.user.nisum.mapper.UserMapper;
+import com.user.nisum.mapper.UserMapperImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeo MapStruct de User a UserRegistrationResponseDTO según la cantidad de teléfonos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int phoneCount;
+
+    private UserMapper userMapper;
+    private User user;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        userMapper = new UserMapperImpl();
+
+        List<Phone> phones = new ArrayList<>();
+        for (int i = 0; i < phoneCount; i++) {
+            phones.add(Phone.builder()
+                    .id((long) i)
+                    .number(String.valueOf(1000000 + i))
+                    .citycode("1")
+                    .contrycode("57")
+                    .build());
+        }
+
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .name("José Francisco Valdez")
+                .email("jose.valdez@empresa.com")
+                .password("encodedPassword")
+                .token("jwt.token.here")
+                .created(LocalDateTime.now())
+                .modified(LocalDateTime.now())
+                .lastLogin(LocalDateTime.now())
+                .isActive(true)
+                .phones(phones)
+                .build();
+    }
+
+    @Benchmark
+    public UserRegistrationResponseDTO toResponse() {
+        return userMapper.toResponse(user);
+    }
+}
@@ -0,0 +1,81 @@
+package com.user.nisum.benchmark;
+
+import com.user.nisum.NisumApplication;
+import com.user.nisum.dtos.PhoneDTODTO;
+import com.user.nisum.dtos.UserRegistrationRequestDTO;
+import com.user.nisum.dtos.UserRegistrationResponseDTO;
+import com.user.nisum.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * registerUser y login de UserServiceImpl de punta a punta contra H2 en memoria.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    private static final String PASSWORD = "SecurePass1@";
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private String loginEmail;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(NisumApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.user.nisum=WARN",
+                        "logging.level.org.springframework.security=WARN")
+                .run();
+        userService = context.getBean(UserService.class);
+
+        loginEmail = "login@benchmark.org";
+        userService.registerUser(request(loginEmail));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserRegistrationResponseDTO registerUser() {
+        return userService.registerUser(request("user" + sequence.incrementAndGet() + "@benchmark.org"));
+    }
+
+    @Benchmark
+    public UserRegistrationResponseDTO login() {
+        return userService.login(loginEmail, PASSWORD);
+    }
+
+    private static UserRegistrationRequestDTO request(String email) {
+        PhoneDTODTO phone = new PhoneDTODTO();
+        phone.setNumber("1234567");
+        phone.setCitycode("1");
+        phone.setContrycode("57");
+
+        UserRegistrationRequestDTO request = new UserRegistrationRequestDTO();
+        request.setName("José Francisco Valdez");
+        request.setEmail(email);
+        request.setPassword(PASSWORD);
+        request.setPhones(List.of(phone));
+        return request;
+    }
+}
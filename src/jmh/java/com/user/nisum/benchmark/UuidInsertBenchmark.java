@@ -0,0 +1,85 @@
+package com.user.nisum.benchmark;
+
+import com.user.nisum.entity.UuidV7;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts masivos en una tabla con clave primaria UUID: v4 aleatorio vs. v7 ordenado por tiempo.
+ *
+ * La tabla crece durante todo el trial (como users en producción), así que las
+ * últimas iteraciones reflejan el costo con un índice grande. Al terminar se
+ * imprime el espacio en disco de la tabla y su índice de clave primaria.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(UuidInsertBenchmark.BATCH_SIZE)
+public class UuidInsertBenchmark {
+
+    static final int BATCH_SIZE = 1000;
+
+    @Param({"V4", "V7"})
+    private String idVersion;
+
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement insert;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("uuid-benchmark");
+        connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("bench"), "sa", "");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table bench_users (id uuid primary key, email varchar(255) not null)");
+        }
+        insert = connection.prepareStatement("insert into bench_users (id, email) values (?, ?)");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException, IOException {
+        connection.commit();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("select count(*) from bench_users");
+             Statement sizeStatement = connection.createStatement();
+             ResultSet size = sizeStatement.executeQuery("call disk_space_used('BENCH_USERS')")) {
+            rows.next();
+            size.next();
+            System.out.printf("%n[%s] filas=%d, espacio tabla+índice PK=%d bytes%n",
+                    idVersion, rows.getLong(1), size.getLong(1));
+        }
+        insert.close();
+        connection.close();
+        try (var files = Files.walk(directory)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int[] insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            UUID id = "V7".equals(idVersion) ? UuidV7.randomUuid() : UUID.randomUUID();
+            insert.setObject(1, id);
+            insert.setString(2, id + "@benchmark.org");
+            insert.addBatch();
+        }
+        int[] counts = insert.executeBatch();
+        connection.commit();
+        return counts;
+    }
+}
@@ -0,0 +1,121 @@
+package com.user.nisum.benchmark;
+
+import com.user.nisum.NisumApplication;
+import com.user.nisum.dtos.PhoneDTODTO;
+import com.user.nisum.dtos.UserRegistrationRequestDTO;
+import com.user.nisum.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga HTTP de alta concurrencia sobre GET /api/usuarios/email/{email} con la
+ * aplicación completa, comparando hilos de plataforma (Tomcat, 200 hilos) contra
+ * hilos virtuales. Cada invocación lanza CONCURRENCY peticiones simultáneas; cada
+ * sentencia SQL espera dbLatencyMs para simular una base remota. El pool de Hikari
+ * se dimensiona a la concurrencia para que el límite lo pongan los hilos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class VirtualThreadLoadBenchmark {
+
+    private static final int CONCURRENCY = 1000;
+    private static final String EMAIL = "carga@benchmark.org";
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"20"})
+    private long dbLatencyMs;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clients;
+    private HttpClient httpClient;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Como argumentos de línea de comandos: las propiedades por defecto del builder
+        // no pisan las de application.properties
+        context = new SpringApplicationBuilder(NisumApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.hikari.maximum-pool-size=" + CONCURRENCY,
+                "--spring.datasource.hikari.minimum-idle=10",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                        + SimulatedLatencyStatementInspector.class.getName(),
+                // Sin caché de respuestas: cada petición llega a la base
+                "--user.email-cache.max-size=0",
+                "--password.bcrypt.strength=4",
+                "--logging.level.root=WARN",
+                "--logging.level.com.user.nisum=WARN",
+                "--logging.level.org.springframework.security=WARN");
+        context.getBean(UserService.class).registerUser(registration());
+        SimulatedLatencyStatementInspector.latencyMs = dbLatencyMs;
+
+        String port = context.getEnvironment().getProperty("local.server.port");
+        clients = Executors.newVirtualThreadPerTaskExecutor();
+        httpClient = HttpClient.newBuilder().executor(clients).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/usuarios/email/" + EMAIL))
+                .GET()
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SimulatedLatencyStatementInspector.latencyMs = 0;
+        httpClient.close();
+        clients.close();
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENCY)
+    public int concurrentRequests() throws Exception {
+        List<Future<Integer>> responses = new ArrayList<>(CONCURRENCY);
+        for (int i = 0; i < CONCURRENCY; i++) {
+            responses.add(clients.submit(() -> httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode()));
+        }
+        int ok = 0;
+        for (Future<Integer> response : responses) {
+            if (response.get() == 200) {
+                ok++;
+            }
+        }
+        if (ok != CONCURRENCY) {
+            throw new IllegalStateException("Respuestas con error: " + (CONCURRENCY - ok));
+        }
+        return ok;
+    }
+
+    private static UserRegistrationRequestDTO registration() {
+        PhoneDTODTO phone = new PhoneDTODTO();
+        phone.setNumber("1234567");
+        phone.setCitycode("1");
+        phone.setContrycode("57");
+
+        UserRegistrationRequestDTO registration = new UserRegistrationRequestDTO();
+        registration.setName("José Francisco Valdez");
+        registration.setEmail(EMAIL);
+        registration.setPassword("SecurePass1@");
+        registration.setPhones(List.of(phone));
+        return registration;
+    }
+}
@@ -0,0 +1,34 @@
+package com.user.nisum.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publica los descartes de {@link CountingAsyncAppender} como
+ * {@code logging.events.dropped{reason=discarded|queue_full}} y la capacidad libre de
+ * la cola como {@code logging.queue.remaining}. Sin el perfil {@code prod} el appender
+ * no está activo y los contadores quedan en cero.
+ */
+@Component
+public class AsyncLoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("logging.events.dropped", CountingAsyncAppender.class,
+                        appender -> CountingAsyncAppender.discardedCount())
+                .tag("reason", "discarded")
+                .description("Eventos de log INFO o menores descartados con la cola sobre el umbral")
+                .register(registry);
+        FunctionCounter.builder("logging.events.dropped", CountingAsyncAppender.class,
+                        appender -> CountingAsyncAppender.queueFullCount())
+                .tag("reason", "queue_full")
+                .description("Eventos de log descartados con la cola llena")
+                .register(registry);
+        Gauge.builder("logging.queue.remaining", CountingAsyncAppender::remainingCapacity)
+                .description("Lugares libres en la cola del appender asíncrono")
+                .register(registry);
+    }
+}
@@ -0,0 +1,49 @@
+package com.user.nisum.config;
+
+import com.user.nisum.service.impl.PasswordHashingExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * PasswordEncoder que ejecuta encode/matches del encoder delegado en el
+ * pool acotado de {@link PasswordHashingExecutor} en lugar del hilo de la petición.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor hashingExecutor;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor hashingExecutor) {
+        this.delegate = delegate;
+        this.hashingExecutor = hashingExecutor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hashingExecutor.execute(() -> delegate.encode(rawPassword));
+    }
+
+    /**
+     * Codifica varias contraseñas en paralelo dentro del cupo de hilos para lotes del pool.
+     *
+     * @return los hashes en el mismo orden de entrada
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        List<Callable<String>> tasks = rawPasswords.stream()
+                .<Callable<String>>map(rawPassword -> () -> delegate.encode(rawPassword))
+                .toList();
+        return hashingExecutor.executeAll(tasks);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return hashingExecutor.execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
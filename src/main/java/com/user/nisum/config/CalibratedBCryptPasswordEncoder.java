@@ -0,0 +1,82 @@
+package com.user.nisum.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCryptPasswordEncoder cuyo factor de trabajo se calibra al arrancar según la
+ * latencia de hashing medida en el host.
+ *
+ * {@link #upgradeEncoding(String)} marca para re-hash solo los hashes con un costo
+ * menor al calibrado. Cada réplica calibra por su cuenta, así que en hardware mixto
+ * los costos difieren entre nodos: un hash de costo mayor se conserva para no
+ * reescribirlo en cada login según el nodo que atienda ni bajar su costo.
+ */
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Logger log = LoggerFactory.getLogger(CalibratedBCryptPasswordEncoder.class);
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2([ayb])?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+    private static final String CALIBRATION_PASSWORD = "Calibracion1@";
+
+    private final int strength;
+
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    /**
+     * Crea un encoder con el mayor costo cuyo hashing no supere la latencia objetivo,
+     * acotado a [minStrength, maxStrength].
+     */
+    public static CalibratedBCryptPasswordEncoder calibrated(Duration targetLatency, int minStrength, int maxStrength) {
+        int strength = calibrateStrength(targetLatency, minStrength, maxStrength);
+        log.info("Costo BCrypt calibrado en {} (latencia objetivo {} ms)", strength, targetLatency.toMillis());
+        return new CalibratedBCryptPasswordEncoder(strength);
+    }
+
+    static int calibrateStrength(Duration targetLatency, int minStrength, int maxStrength) {
+        long targetNanos = targetLatency.toNanos();
+        // Calentamiento para no medir la carga de clases y el JIT
+        new BCryptPasswordEncoder(minStrength).encode(CALIBRATION_PASSWORD);
+
+        int chosen = minStrength;
+        for (int candidate = minStrength; candidate <= maxStrength; candidate++) {
+            long start = System.nanoTime();
+            new BCryptPasswordEncoder(candidate).encode(CALIBRATION_PASSWORD);
+            long elapsed = System.nanoTime() - start;
+
+            if (elapsed > targetNanos) {
+                break;
+            }
+            chosen = candidate;
+            // Cada incremento duplica el costo: si el siguiente superaría el objetivo, no se mide
+            if (elapsed * 2 > targetNanos) {
+                break;
+            }
+        }
+        return chosen;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        if (!matcher.matches()) {
+            return false;
+        }
+        return Integer.parseInt(matcher.group(2)) < strength;
+    }
+}
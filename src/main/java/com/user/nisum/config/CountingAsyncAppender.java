@@ -0,0 +1,74 @@
+package com.user.nisum.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link AsyncAppender} que cuenta los eventos que descarta.
+ *
+ * Con {@code neverBlock} el hilo que loguea nunca espera a la consola: cuando la cola
+ * pasa el umbral se descartan INFO y niveles menores, y con la cola llena también
+ * WARN y ERROR. Los contadores son estáticos porque logback crea el appender antes que
+ * el contexto de Spring; {@link AsyncLoggingMetrics} los publica. El chequeo previo a
+ * encolar no es atómico: una carrera puntual puede descartar sin contar.
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+    private static final LongAdder DISCARDED = new LongAdder();
+    private static final LongAdder QUEUE_FULL = new LongAdder();
+
+    private static volatile CountingAsyncAppender active;
+
+    @Override
+    public void start() {
+        super.start();
+        if (isStarted()) {
+            active = this;
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (active == this) {
+            active = null;
+        }
+        super.stop();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (isQueueBelowDiscardingThreshold() && isDiscardable(event)) {
+            DISCARDED.increment();
+            return;
+        }
+        if (isNeverBlock() && getRemainingCapacity() == 0) {
+            QUEUE_FULL.increment();
+            return;
+        }
+        super.append(event);
+    }
+
+    /**
+     * Eventos INFO o menores descartados por superar el umbral de la cola.
+     */
+    public static long discardedCount() {
+        return DISCARDED.sum();
+    }
+
+    /**
+     * Eventos descartados por encontrar la cola llena.
+     */
+    public static long queueFullCount() {
+        return QUEUE_FULL.sum();
+    }
+
+    /**
+     * Lugares libres en la cola del appender activo, o -1 si no hay ninguno.
+     */
+    public static int remainingCapacity() {
+        CountingAsyncAppender appender = active;
+        return appender == null ? -1 : appender.getRemainingCapacity();
+    }
+}
@@ -0,0 +1,179 @@
+package com.user.nisum.config;
+
+import com.user.nisum.service.impl.UserStageEvent;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Grabación JFR bajo demanda: {@code POST /actuator/jfr/start}, {@code /dump} y
+ * {@code /stop}, y {@code GET /actuator/jfr} para el estado.
+ *
+ * Permite capturar asignaciones, locks y los eventos propios de la aplicación
+ * ({@link UserStageEvent}, {@link JwtVerificationEvent}) en producción sin adjuntar
+ * herramientas externas ni reiniciar la JVM. Hay una sola grabación a la vez; cada
+ * volcado escribe un archivo nuevo en {@code diagnostics.jfr.directory}. El acceso
+ * se limita a loopback en {@link SecurityConfig}.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrRecordingEndpoint.class);
+
+    static final String RECORDING_NAME = "user-api";
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final Path directory;
+    private final String defaultSettings;
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private Recording recording;
+
+    public JfrRecordingEndpoint(@Value("${diagnostics.jfr.directory:${java.io.tmpdir}/user-api-jfr}") Path directory,
+                                @Value("${diagnostics.jfr.settings:profile}") String defaultSettings,
+                                @Value("${diagnostics.jfr.max-age:PT30M}") Duration maxAge,
+                                @Value("${diagnostics.jfr.max-size-mb:256}") long maxSizeMb) {
+        this.directory = directory;
+        this.defaultSettings = defaultSettings;
+        this.maxAge = maxAge;
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        lock.lock();
+        try {
+            return currentStatus();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Map<String, Object> currentStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", recording == null ? RecordingState.CLOSED.name() : recording.getState().name());
+        if (recording != null) {
+            status.put("startTime", recording.getStartTime());
+            status.put("size", recording.getSize());
+        }
+        status.put("directory", directory.toString());
+        return status;
+    }
+
+    /**
+     * Ejecuta una acción sobre la grabación.
+     *
+     * @param action   {@code start}, {@code dump} (copia sin detener) o {@code stop} (vuelca y cierra)
+     * @param settings configuración JFR para {@code start}: {@code default} (bajo overhead)
+     *                 o {@code profile} (muestreo de asignaciones y locks más fino)
+     */
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> action(@Selector String action, @Nullable String settings) {
+        lock.lock();
+        try {
+            return switch (action) {
+                case "start" -> start(settings == null ? defaultSettings : settings);
+                case "dump" -> dump(false);
+                case "stop" -> dump(true);
+                default -> error(WebEndpointResponse.STATUS_BAD_REQUEST, "Acción desconocida: " + action);
+            };
+        } catch (IOException e) {
+            log.warn("No se pudo escribir la grabación JFR en {}", directory, e);
+            return error(WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR, "No se pudo escribir la grabación: " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private WebEndpointResponse<Map<String, Object>> start(String settings) throws IOException {
+        if (recording != null) {
+            return error(409, "Ya hay una grabación en curso");
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (ParseException | IOException e) {
+            return error(WebEndpointResponse.STATUS_BAD_REQUEST, "Configuración JFR desconocida: " + settings);
+        }
+
+        Recording started = new Recording(configuration);
+        started.setName(RECORDING_NAME);
+        started.setToDisk(true);
+        started.setMaxAge(maxAge);
+        started.setMaxSize(maxSizeBytes);
+        // Los eventos propios van siempre, también con una configuración que no los nombre
+        started.enable(UserStageEvent.class);
+        started.enable(JwtVerificationEvent.class);
+        started.start();
+        recording = started;
+        log.info("Grabación JFR iniciada con la configuración '{}'", settings);
+        return new WebEndpointResponse<>(currentStatus());
+    }
+
+    private WebEndpointResponse<Map<String, Object>> dump(boolean stop) throws IOException {
+        if (recording == null) {
+            return error(409, "No hay una grabación en curso");
+        }
+        Path file = directory.resolve(RECORDING_NAME + "-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr");
+        try {
+            Files.createDirectories(directory);
+            if (stop) {
+                recording.stop();
+            }
+            recording.dump(file);
+        } finally {
+            // Aunque el volcado falle, stop cierra la grabación para que un nuevo start no choque con ella
+            if (stop) {
+                recording.close();
+                recording = null;
+            }
+        }
+        log.info("Grabación JFR volcada en {}", file);
+
+        Map<String, Object> body = currentStatus();
+        body.put("file", file.toString());
+        return new WebEndpointResponse<>(body);
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            if (recording != null) {
+                recording.close();
+                recording = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static WebEndpointResponse<Map<String, Object>> error(int status, String message) {
+        return new WebEndpointResponse<>(Map.of("error", message), status);
+    }
+}
@@ -1,30 +1,65 @@
 package com.user.nisum.config;
 
+import com.user.nisum.exception.StackTraceRateLimiter;
 import com.user.nisum.service.JwtService;
+import com.user.nisum.service.VerifiedToken;
+import com.user.nisum.service.impl.DeactivatedUserRegistry;
+import com.user.nisum.service.impl.TokenRevocationList;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
     @Autowired
     private JwtService jwtService;
 
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private DeactivatedUserRegistry deactivatedUserRegistry;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private StackTraceRateLimiter stackTraces;
+
+    @Value("${jwt.principal-mode:DATABASE}")
+    private JwtPrincipalMode principalMode;
+
+    // Índices: 0 válido, 1 inválido, 2 revocado; se registran al primer uso
+    private final Timer[] verificationTimers = new Timer[3];
+    private static final String[] VERIFICATION_OUTCOMES = {"valid", "invalid", "revoked"};
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -51,26 +86,86 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         try {
             final String jwt = authHeader.substring(7);
-            final String userEmail = jwtService.extractEmail(jwt);
+            // Una sola verificación por petición; los tokens repetidos salen de la caché
+            final long start = System.nanoTime();
+            final JwtVerificationEvent event = new JwtVerificationEvent();
+            event.begin();
+            final Optional<VerifiedToken> verifiedToken = jwtService.verifyToken(jwt);
             
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            // La revocación se comprueba contra el conjunto en memoria, sin consultar la base
+            final boolean revoked = verifiedToken.isPresent() && tokenRevocationList.isRevoked(verifiedToken.get().jti());
+            final int outcome = verifiedToken.isEmpty() ? 1 : revoked ? 2 : 0;
+            event.end();
+            if (event.shouldCommit()) {
+                event.outcome = VERIFICATION_OUTCOMES[outcome];
+                event.commit();
+            }
+            verificationTimer(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            
+            if (verifiedToken.isPresent() && !revoked
+                    && SecurityContextHolder.getContext().getAuthentication() == null) {
+                UsernamePasswordAuthenticationToken authToken = principalMode == JwtPrincipalMode.STATELESS
+                        ? authenticateFromClaims(verifiedToken.get())
+                        : authenticateFromDatabase(verifiedToken.get());
                 
-                if (jwtService.isTokenValid(jwt)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
+                if (authToken != null) {
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
             }
+        } catch (UsernameNotFoundException e) {
+            // Token válido de un usuario que ya no existe, continuar sin autenticación
+            log.debug("JWT de un usuario inexistente: {}", e.getMessage());
         } catch (Exception e) {
-            // Token inválido, continuar sin autenticación
-            System.err.println("Error en JWT filter: " + e.getMessage());
+            // Falla al resolver el usuario (p. ej. la base): continuar sin autenticación
+            if (stackTraces.tryAcquire(e)) {
+                log.warn("Error al autenticar el JWT", e);
+            } else {
+                log.warn("Error al autenticar el JWT: {}", e.toString());
+            }
         }
         
         filterChain.doFilter(request, response);
     }
+
+    private Timer verificationTimer(int outcome) {
+        Timer timer = verificationTimers[outcome];
+        if (timer == null) {
+            timer = Timer.builder("jwt.verification")
+                    .description("Verificación del JWT en el filtro (caché, firma y revocación)")
+                    .tag("outcome", VERIFICATION_OUTCOMES[outcome])
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            verificationTimers[outcome] = timer;
+        }
+        return timer;
+    }
+
+    /**
+     * Construye el principal desde los claims ya verificados, sin ida a la base de datos.
+     * Los usuarios desactivados se bloquean contra el conjunto en memoria.
+     */
+    private UsernamePasswordAuthenticationToken authenticateFromClaims(VerifiedToken verifiedToken) {
+        UUID userId = UUID.fromString(verifiedToken.userId());
+        if (deactivatedUserRegistry.isDeactivated(userId)) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(
+                new JwtPrincipal(userId, verifiedToken.email()),
+                null,
+                List.of()
+        );
+    }
+
+    private UsernamePasswordAuthenticationToken authenticateFromDatabase(VerifiedToken verifiedToken) {
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(verifiedToken.email());
+        if (!userDetails.isEnabled()) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+        );
+    }
 } 
\ No newline at end of file
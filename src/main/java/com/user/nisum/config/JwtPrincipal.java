@@ -0,0 +1,9 @@
+package com.user.nisum.config;
+
+import java.util.UUID;
+
+/**
+ * Principal autenticado construido a partir de los claims del JWT, sin consultar la base de datos.
+ */
+public record JwtPrincipal(UUID userId, String email) {
+}
@@ -0,0 +1,11 @@
+package com.user.nisum.config;
+
+/**
+ * Forma en que JwtAuthenticationFilter construye el principal autenticado.
+ */
+public enum JwtPrincipalMode {
+    /** Carga el usuario desde la base de datos en cada petición. */
+    DATABASE,
+    /** Construye el principal directamente desde los claims verificados del token. */
+    STATELESS
+}
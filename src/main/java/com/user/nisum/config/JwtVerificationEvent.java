@@ -0,0 +1,25 @@
+package com.user.nisum.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de la verificación del JWT en {@link JwtAuthenticationFilter}: firma,
+ * caché de tokens verificados y lista de revocación.
+ */
+@Name(JwtVerificationEvent.NAME)
+@Label("JWT Verification")
+@Category({"Nisum", "Seguridad"})
+@Description("Duración y resultado de la verificación del JWT de una petición")
+@StackTrace(false)
+public final class JwtVerificationEvent extends Event {
+
+    public static final String NAME = "com.user.nisum.JwtVerification";
+
+    @Label("Outcome")
+    String outcome;
+}
@@ -0,0 +1,104 @@
+package com.user.nisum.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resumen de las estadísticas de Hibernate: {@code GET /actuator/querystats} y
+ * {@code DELETE /actuator/querystats} para reiniciarlas.
+ *
+ * Por cada consulta (JPQL, criteria o nativa) informa ejecuciones, filas y latencias,
+ * ordenadas por tiempo total. Las cargas por ID y las colecciones inicializadas aparte
+ * no son consultas: un {@code collectionFetches} que crece con las peticiones es el
+ * síntoma de un N+1. Las sentencias de JdbcTemplate (volcado del último login) no
+ * pasan por Hibernate y no aparecen.
+ */
+@Component
+@Endpoint(id = "querystats")
+public class QueryStatisticsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final Statistics statistics;
+
+    public QueryStatisticsEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public record QuerySummary(String query, long executions, long rows, double avgMs, long maxMs, long totalMs) {
+    }
+
+    public record EntitySummary(long loads, long fetches, long inserts, long updates, long deletes) {
+    }
+
+    /**
+     * @param limit cantidad de consultas a listar, las de mayor tiempo total primero
+     */
+    @ReadOperation
+    public Map<String, Object> summary(@Nullable Integer limit) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("enabled", statistics.isStatisticsEnabled());
+        if (!statistics.isStatisticsEnabled()) {
+            return summary;
+        }
+        summary.put("since", statistics.getStart());
+        summary.put("statementsPrepared", statistics.getPrepareStatementCount());
+        summary.put("queryExecutions", statistics.getQueryExecutionCount());
+        summary.put("slowestQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        summary.put("slowestQueryMs", statistics.getQueryExecutionMaxTime());
+        summary.put("entityLoads", statistics.getEntityLoadCount());
+        summary.put("entityFetches", statistics.getEntityFetchCount());
+        summary.put("collectionFetches", statistics.getCollectionFetchCount());
+        summary.put("secondLevelCache", Map.of(
+                "hits", statistics.getSecondLevelCacheHitCount(),
+                "misses", statistics.getSecondLevelCacheMissCount(),
+                "puts", statistics.getSecondLevelCachePutCount()));
+        summary.put("queries", queries(limit == null ? DEFAULT_LIMIT : limit));
+        summary.put("entities", entities());
+        return summary;
+    }
+
+    @DeleteOperation
+    public Map<String, Object> reset() {
+        statistics.clear();
+        return Map.of("since", Instant.now());
+    }
+
+    private List<QuerySummary> queries(int limit) {
+        return Arrays.stream(statistics.getQueries())
+                .map(query -> {
+                    QueryStatistics stats = statistics.getQueryStatistics(query);
+                    return new QuerySummary(query, stats.getExecutionCount(), stats.getExecutionRowCount(),
+                            stats.getExecutionAvgTimeAsDouble(), stats.getExecutionMaxTime(), stats.getExecutionTotalTime());
+                })
+                .filter(query -> query.executions() > 0)
+                .sorted(Comparator.comparingLong(QuerySummary::totalMs).thenComparingLong(QuerySummary::executions).reversed())
+                .limit(Math.max(limit, 0))
+                .toList();
+    }
+
+    private Map<String, EntitySummary> entities() {
+        Map<String, EntitySummary> entities = new LinkedHashMap<>();
+        for (String name : statistics.getEntityNames()) {
+            EntityStatistics stats = statistics.getEntityStatistics(name);
+            entities.put(name.substring(name.lastIndexOf('.') + 1), new EntitySummary(stats.getLoadCount(),
+                    stats.getFetchCount(), stats.getInsertCount(), stats.getUpdateCount(), stats.getDeleteCount()));
+        }
+        return entities;
+    }
+}
@@ -0,0 +1,78 @@
+package com.user.nisum.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Caché de segundo nivel de Hibernate sobre JCache (Ehcache).
+ *
+ * Cada región tiene un tier en heap para las entradas más usadas y un tier
+ * off-heap para el resto del working set, que queda fuera del alcance del GC.
+ * El tamaño de cada tier y el TTL se configuran por región con
+ * {@code l2-cache.regions.<región>.*}.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String USER_REGION = "users";
+    public static final String PHONE_REGION = "phones";
+    public static final String USER_PHONES_REGION = "users-phones";
+
+    private static final List<String> REGIONS = List.of(USER_REGION, PHONE_REGION, USER_PHONES_REGION);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(Environment environment, MeterRegistry meterRegistry) {
+        ClassLoader classLoader = getClass().getClassLoader();
+        ConfigurationBuilder configuration = ConfigurationBuilder.newConfigurationBuilder()
+                .withClassLoader(classLoader);
+        for (String region : REGIONS) {
+            configuration = configuration.withCache(region, regionConfiguration(environment, region));
+        }
+
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName(), classLoader);
+        // URI propia por contexto: el provider reutiliza el CacheManager de una misma URI
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("urn:user-nisum:hibernate-l2:" + UUID.randomUUID()), configuration.build());
+
+        for (String region : REGIONS) {
+            cacheManager.enableStatistics(region, true);
+            JCacheMetrics.monitor(meterRegistry, cacheManager.getCache(region), "layer", "hibernate-l2");
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CacheConfigurationBuilder<Object, Object> regionConfiguration(Environment environment, String region) {
+        String prefix = "l2-cache.regions." + region + ".";
+        long heapEntries = environment.getProperty(prefix + "heap-entries", Long.class, 1000L);
+        long offHeapMb = environment.getProperty(prefix + "offheap-mb", Long.class, 16L);
+        long ttlSeconds = environment.getProperty(prefix + "ttl-seconds", Long.class, 600L);
+
+        return CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                        ResourcePoolsBuilder.heap(heapEntries).offheap(offHeapMb, MemoryUnit.MB))
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ttlSeconds)));
+    }
+}
@@ -1,17 +1,22 @@
 package com.user.nisum.config;
 
+import com.user.nisum.service.impl.PasswordHashingExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.expression.WebExpressionAuthorizationManager;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -35,7 +40,13 @@ public class SecurityConfig {
                         .requestMatchers("/api/usuarios/email/**").permitAll()
                         .requestMatchers("/api/usuarios/*/login").permitAll()
                         .requestMatchers("/api/usuarios/login").permitAll()
+                        .requestMatchers("/api/usuarios/token/refresh").permitAll()
                         .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/api-docs/**", "/h2-console/**").permitAll()
+                        // Scraping de métricas sin JWT; en producción se restringe por red
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                        // Grabaciones JFR y estadísticas de consultas solo desde el propio host (ssh / port-forward)
+                        .requestMatchers("/actuator/jfr/**", "/actuator/querystats/**").access(new WebExpressionAuthorizationManager(
+                                "hasIpAddress('127.0.0.1') or hasIpAddress('::1')"))
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
@@ -50,7 +61,21 @@ public class SecurityConfig {
     }
     
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(PasswordHashingExecutor passwordHashingExecutor,
+                                           @Value("${password.bcrypt.strength:0}") int strength,
+                                           @Value("${password.bcrypt.target-latency-ms:250}") long targetLatencyMs,
+                                           @Value("${password.bcrypt.min-strength:10}") int minStrength,
+                                           @Value("${password.bcrypt.max-strength:16}") int maxStrength) {
+        // Costo fijo si se configura; si no, se calibra a la latencia objetivo en este host
+        CalibratedBCryptPasswordEncoder bcrypt = strength > 0
+                ? new CalibratedBCryptPasswordEncoder(strength)
+                : CalibratedBCryptPasswordEncoder.calibrated(Duration.ofMillis(targetLatencyMs), minStrength, maxStrength);
+
+        // Los hashes nuevos se guardan con prefijo {bcrypt}; los antiguos sin prefijo siguen validando
+        DelegatingPasswordEncoder delegatingEncoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegatingEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        // BCrypt corre en un pool acotado, fuera de los hilos de Tomcat
+        return new BoundedPasswordEncoder(delegatingEncoder, passwordHashingExecutor);
     }
 } 
\ No newline at end of file
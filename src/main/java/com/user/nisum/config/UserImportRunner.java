@@ -0,0 +1,36 @@
+package com.user.nisum.config;
+
+import com.user.nisum.service.UserImportService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Ejecuta una importación masiva al arrancar cuando se indica el archivo:
+ *
+ * <pre>java -jar app.jar --user.import.file=/datos/usuarios.ndjson</pre>
+ *
+ * Si la importación se interrumpe, volver a ejecutar con el mismo archivo la
+ * reanuda desde el último chunk confirmado.
+ */
+@Component
+@ConditionalOnProperty(name = "user.import.file")
+public class UserImportRunner implements ApplicationRunner {
+
+    private final UserImportService userImportService;
+    private final Path file;
+
+    public UserImportRunner(UserImportService userImportService, @Value("${user.import.file}") String file) {
+        this.userImportService = userImportService;
+        this.file = Path.of(file);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        userImportService.importUsers(file);
+    }
+}
@@ -0,0 +1,142 @@
+package com.user.nisum.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Detecta con JFR los hilos virtuales que quedan fijados (pinned) a su carrier.
+ *
+ * En Java 21 un hilo virtual que se bloquea dentro de un bloque {@code synchronized}
+ * o de un frame nativo no libera su carrier, y con pocos carriers unas pocas
+ * peticiones bloqueadas en JDBC pueden frenar a todas las demás. Cada evento
+ * {@code jdk.VirtualThreadPinned} que supera el umbral se cuenta en
+ * {@code jvm.threads.virtual.pinned} según la capa donde ocurrió (jdbc, hibernate,
+ * application u other) y la primera vez que aparece un stack se registra con un WARN.
+ * Por defecto se activa junto con {@code spring.threads.virtual.enabled}.
+ */
+@Component
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final int LOGGED_FRAMES = 15;
+    private static final int MAX_LOGGED_STACKS = 100;
+
+    private static final List<String> JDBC_PACKAGES = List.of(
+            "java.sql.", "javax.sql.", "com.zaxxer.hikari.", "org.h2.", "org.postgresql.", "com.mysql.", "oracle.jdbc.");
+    private static final String HIBERNATE_PACKAGE = "org.hibernate.";
+    private static final String APPLICATION_PACKAGE = "com.user.nisum.";
+
+    private final boolean enabled;
+    private final Duration threshold;
+    private final MeterRegistry meterRegistry;
+    private final Timer pinnedTimer;
+    private final Set<String> loggedStacks = ConcurrentHashMap.newKeySet();
+
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(@Value("${diagnostics.virtual-threads.pinning.enabled:${spring.threads.virtual.enabled:false}}") boolean enabled,
+                                       @Value("${diagnostics.virtual-threads.pinning.threshold-ms:20}") long thresholdMs,
+                                       MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.threshold = Duration.ofMillis(thresholdMs);
+        this.meterRegistry = meterRegistry;
+        this.pinnedTimer = Timer.builder("jvm.threads.virtual.pinned.duration")
+                .description("Tiempo que un hilo virtual estuvo fijado a su carrier")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || stream != null) {
+            return;
+        }
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+        stream = recording;
+        log.info("Monitor de pinning de hilos virtuales activo (umbral {} ms)", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        stream = null;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    /**
+     * Capa donde quedó bloqueado el hilo: el primer frame, desde el tope del stack,
+     * que pertenece al driver/pool JDBC, a Hibernate o a la aplicación.
+     */
+    static String classify(List<String> frameClassNames) {
+        for (String className : frameClassNames) {
+            if (JDBC_PACKAGES.stream().anyMatch(className::startsWith)) {
+                return "jdbc";
+            }
+            if (className.startsWith(HIBERNATE_PACKAGE)) {
+                return "hibernate";
+            }
+            if (className.startsWith(APPLICATION_PACKAGE)) {
+                return "application";
+            }
+        }
+        return "other";
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace == null ? List.of() : stackTrace.getFrames();
+        String source = classify(frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(frame -> frame.getMethod().getType().getName())
+                .toList());
+
+        Counter.builder("jvm.threads.virtual.pinned")
+                .tag("source", source)
+                .description("Eventos de hilos virtuales fijados a su carrier por encima del umbral")
+                .register(meterRegistry)
+                .increment();
+        pinnedTimer.record(event.getDuration());
+
+        String stack = frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(VirtualThreadPinningMonitor::describe)
+                .collect(Collectors.joining("\n\tat ", "\tat ", ""));
+        if (loggedStacks.size() < MAX_LOGGED_STACKS && loggedStacks.add(stack)) {
+            log.warn("Hilo virtual fijado a su carrier durante {} ms ({}):\n{}",
+                    event.getDuration().toMillis(), source, stack);
+        }
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + (frame.getLineNumber() > 0 ? ":" + frame.getLineNumber() : "");
+    }
+}
@@ -1,16 +1,35 @@
 package com.user.nisum.controller;
 
 import com.user.nisum.controllers.resources.UsuariosResource;
+import com.user.nisum.dtos.BatchRegistrationRequestDTO;
+import com.user.nisum.dtos.BatchRegistrationResponseDTO;
+import com.user.nisum.dtos.EmailAvailabilityDTO;
 import com.user.nisum.dtos.LoginRequestDTO;
 import com.user.nisum.dtos.LoginResponseDTO;
+import com.user.nisum.dtos.TokenRefreshRequestDTO;
+import com.user.nisum.dtos.TokenRefreshResponseDTO;
+import com.user.nisum.dtos.UserPageDTO;
 import com.user.nisum.dtos.UserRegistrationRequestDTO;
 import com.user.nisum.dtos.UserRegistrationResponseDTO;
+import com.user.nisum.exception.InvalidCredentialsException;
+import com.user.nisum.service.JwtService;
+import com.user.nisum.service.RefreshTokenService;
+import com.user.nisum.service.TokenPair;
+import com.user.nisum.service.UserBatchService;
+import com.user.nisum.service.UserExportService;
 import com.user.nisum.service.UserService;
+import com.user.nisum.service.impl.LoginThrottle;
+import com.user.nisum.service.impl.TokenRevocationList;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.context.request.NativeWebRequest;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
 import java.util.Map;
 
 import java.util.Optional;
@@ -19,12 +38,29 @@ import java.util.UUID;
 @RestController
 public class UserController implements UsuariosResource {
 
+    private static final String EXPORT_CONTENT_TYPE = "application/x-ndjson";
+
     private final UserService userService;
+    private final UserBatchService userBatchService;
+    private final UserExportService userExportService;
+    private final RefreshTokenService refreshTokenService;
+    private final JwtService jwtService;
+    private final TokenRevocationList tokenRevocationList;
+    private final LoginThrottle loginThrottle;
     private final NativeWebRequest request;
 
     @Autowired
-    public UserController(UserService userService, Optional<NativeWebRequest> request) {
+    public UserController(UserService userService, UserBatchService userBatchService,
+                          UserExportService userExportService, RefreshTokenService refreshTokenService,
+                          JwtService jwtService, TokenRevocationList tokenRevocationList,
+                          LoginThrottle loginThrottle, Optional<NativeWebRequest> request) {
         this.userService = userService;
+        this.userBatchService = userBatchService;
+        this.userExportService = userExportService;
+        this.refreshTokenService = refreshTokenService;
+        this.jwtService = jwtService;
+        this.tokenRevocationList = tokenRevocationList;
+        this.loginThrottle = loginThrottle;
         this.request = request.orElse(null);
     }
 
@@ -54,11 +90,29 @@ public class UserController implements UsuariosResource {
         return userService.registerUser(request);
     }
 
+    @Override
+    public BatchRegistrationResponseDTO registrarUsuariosLote(BatchRegistrationRequestDTO request) {
+        return userBatchService.registerUsers(request.getUsers());
+    }
+
+    @Override
+    public UserPageDTO listarUsuarios(Boolean isActive, OffsetDateTime createdFrom, OffsetDateTime createdTo,
+                                      String cursor, Integer limit) {
+        return userService.listUsers(isActive, createdFrom, createdTo, cursor, limit);
+    }
+
     @Override
     public UserRegistrationResponseDTO obtenerUsuarioPorEmail(String email) {
         return userService.getUserByEmail(email);
     }
 
+    @Override
+    public EmailAvailabilityDTO consultarDisponibilidadEmail(String email) {
+        return new EmailAvailabilityDTO()
+                .email(email)
+                .disponible(userService.isEmailAvailable(email));
+    }
+
     @Override
     public UserRegistrationResponseDTO actualizarUltimoLogin(UUID id) {
         return userService.updateLastLogin(id);
@@ -78,15 +132,62 @@ public class UserController implements UsuariosResource {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Endpoint protegido que exporta todos los usuarios con sus teléfonos como NDJSON.
+     * Se escribe directamente en la respuesta mientras se lee la base, sin cargar
+     * la lista completa ni depender del timeout de las peticiones asíncronas.
+     */
+    @GetMapping(value = "/api/usuarios/exportacion", produces = EXPORT_CONTENT_TYPE)
+    public void exportarUsuarios(HttpServletResponse response) throws IOException {
+        response.setContentType(EXPORT_CONTENT_TYPE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        userExportService.exportUsers(response.getOutputStream());
+    }
+
     @Override
     public LoginResponseDTO apiUsuariosLoginPost(LoginRequestDTO loginRequestDTO) {
+        // Se rechaza a quien excede el límite antes de verificar la contraseña
+        loginThrottle.acquire(loginRequestDTO.getEmail(), clientIp());
+        
         UserRegistrationResponseDTO user = userService.login(loginRequestDTO.getEmail(), loginRequestDTO.getPassword());
         
         LoginResponseDTO response = new LoginResponseDTO();
         response.setMensaje("Login exitoso");
         response.setToken(user.getToken());
+        response.setRefreshToken(refreshTokenService.issue(user.getId()));
         response.setUsuario(user);
         
         return response;
     }
+
+    @Override
+    public TokenRefreshResponseDTO renovarToken(TokenRefreshRequestDTO tokenRefreshRequestDTO) {
+        TokenPair tokens = refreshTokenService.refresh(tokenRefreshRequestDTO.getRefreshToken());
+        return new TokenRefreshResponseDTO()
+                .token(tokens.accessToken())
+                .refreshToken(tokens.refreshToken());
+    }
+
+    /**
+     * Revoca el token con el que se autenticó la petición. El filtro JWT ya lo verificó,
+     * así que la verificación sale de la caché de tokens.
+     */
+    @Override
+    public void revocarToken() {
+        String token = getRequest()
+                .map(webRequest -> webRequest.getHeader("Authorization"))
+                .filter(header -> header.startsWith("Bearer "))
+                .map(header -> header.substring(7))
+                .orElseThrow(InvalidCredentialsException::new);
+        tokenRevocationList.revoke(jwtService.verifyToken(token).orElseThrow(InvalidCredentialsException::new));
+    }
+
+    // Con server.forward-headers-strategy=native, Tomcat ya reemplazó la dirección de un proxy
+    // confiable por la del cliente tomada de X-Forwarded-For
+    private String clientIp() {
+        return getRequest()
+                .map(webRequest -> webRequest.getNativeRequest(HttpServletRequest.class))
+                .map(HttpServletRequest::getRemoteAddr)
+                .orElse(null);
+    }
 } 
\ No newline at end of file
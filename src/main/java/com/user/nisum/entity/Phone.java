@@ -1,21 +1,27 @@
 package com.user.nisum.entity;
 
 import jakarta.persistence.*;
+import com.user.nisum.config.SecondLevelCacheConfig;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "phones")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.PHONE_REGION)
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Phone {
     
+    // SEQUENCE en lugar de IDENTITY: Hibernate reserva IDs en bloque y puede agrupar los INSERT en batch JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "phones_seq")
+    @SequenceGenerator(name = "phones_seq", sequenceName = "phones_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "number", nullable = false)
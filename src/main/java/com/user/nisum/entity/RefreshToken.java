@@ -0,0 +1,55 @@
+package com.user.nisum.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Refresh token opaco. Solo se guarda su hash SHA-256; cada uso lo consume y emite
+ * otro de la misma familia, de modo que reutilizar uno ya consumido revela un robo
+ * y permite revocar la familia completa.
+ */
+@Entity
+@Table(name = "refresh_tokens",
+        uniqueConstraints = @UniqueConstraint(name = "uk_refresh_tokens_hash", columnNames = "token_hash"),
+        indexes = {
+                @Index(name = "idx_refresh_tokens_family", columnList = "family_id"),
+                @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at")
+        })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshToken {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    private User user;
+    
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
+    
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+    
+    @Column(name = "created", nullable = false)
+    private LocalDateTime created;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    // Momento en que se consumió (rotación) o se revocó; null mientras está vigente
+    @Column(name = "used_at")
+    private LocalDateTime usedAt;
+}
@@ -0,0 +1,63 @@
+package com.user.nisum.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * JWT revocado antes de su expiración, identificado por su claim jti.
+ * La fila solo hace falta hasta que el token expira; después se purga.
+ */
+@Entity
+@Table(name = "revoked_tokens",
+        indexes = @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken implements Persistable<String> {
+    
+    @Id
+    @Column(name = "jti", length = 36)
+    private String jti;
+    
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+    
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+    
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+    
+    // El jti viene del token: sin esta marca save() haría un SELECT + merge antes del INSERT
+    @Transient
+    @Builder.Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean newEntity = true;
+    
+    @Override
+    public String getId() {
+        return jti;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+    
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        newEntity = false;
+    }
+}
@@ -4,37 +4,53 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.GenericGenerator;
+import lombok.ToString;
+import com.user.nisum.config.SecondLevelCacheConfig;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users",
+        uniqueConstraints = @UniqueConstraint(name = User.EMAIL_UNIQUE_CONSTRAINT, columnNames = "email"),
+        indexes = {
+                // Keyset del listado: (created, id) y su variante filtrada por estado
+                @Index(name = "idx_users_created_id", columnList = "created, id"),
+                @Index(name = "idx_users_active_created_id", columnList = "is_active, created, id")
+        })
+@EntityListeners(UserActivationListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.USER_REGION)
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class User {
+public class User implements Persistable<UUID> {
     
+    public static final String EMAIL_UNIQUE_CONSTRAINT = "uk_users_email";
+    
+    // UUID v7 asignado por la aplicación: ordenado por tiempo y conocido antes del persist
     @Id
-    @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
     
     @Column(name = "name", nullable = false)
     private String name;
     
-    @Column(name = "email", nullable = false, unique = true)
+    @Column(name = "email", nullable = false)
     private String email;
     
     @Column(name = "password", nullable = false)
     private String password;
     
-    @Column(name = "token")
+    // El JWT supera los 255 caracteres por defecto al incluir el jti
+    @Column(name = "token", length = 512)
     private String token;
     
     @Column(name = "created", nullable = false)
@@ -49,11 +65,36 @@ public class User {
     @Column(name = "is_active", nullable = false)
     private Boolean isActive;
     
+    // En listados, los teléfonos de todos los usuarios de la página se cargan en una sola consulta
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.USER_PHONES_REGION)
     private List<Phone> phones;
     
+    // Con el ID asignado por la aplicación, Spring Data no puede deducir si la
+    // entidad es nueva; sin esta marca save() haría un SELECT + merge
+    @Transient
+    @Builder.Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean newEntity = true;
+    
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+    
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        newEntity = false;
+    }
+    
     @PrePersist
     protected void onCreate() {
+        if (id == null) {
+            id = UuidV7.randomUuid();
+        }
         created = LocalDateTime.now();
         modified = LocalDateTime.now();
         lastLogin = LocalDateTime.now();
@@ -0,0 +1,38 @@
+package com.user.nisum.entity;
+
+import com.user.nisum.service.impl.DeactivatedUserRegistry;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Mantiene sincronizado DeactivatedUserRegistry con el estado isActive de cada usuario.
+ */
+public class UserActivationListener {
+
+    // Se resuelve de forma diferida: el registro depende de UserRepository,
+    // que a su vez necesita el EntityManagerFactory que crea este listener
+    private final ObjectProvider<DeactivatedUserRegistry> deactivatedUserRegistry;
+
+    @Autowired
+    public UserActivationListener(ObjectProvider<DeactivatedUserRegistry> deactivatedUserRegistry) {
+        this.deactivatedUserRegistry = deactivatedUserRegistry;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void syncActivation(User user) {
+        if (Boolean.FALSE.equals(user.getIsActive())) {
+            deactivatedUserRegistry.getObject().deactivate(user.getId());
+        } else {
+            deactivatedUserRegistry.getObject().reactivate(user.getId());
+        }
+    }
+
+    @PostRemove
+    public void onRemove(User user) {
+        deactivatedUserRegistry.getObject().reactivate(user.getId());
+    }
+}
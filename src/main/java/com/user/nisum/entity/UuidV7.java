@@ -0,0 +1,42 @@
+package com.user.nisum.entity;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Generador de UUID versión 7 (RFC 9562): 48 bits de timestamp Unix en
+ * milisegundos seguidos de 74 bits aleatorios.
+ *
+ * Al estar ordenados por tiempo, los inserts caen al final del índice de la
+ * clave primaria en lugar de repartirse por todo el B-tree como con UUID v4.
+ */
+public final class UuidV7 {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private UuidV7() {
+    }
+
+    public static UUID randomUuid() {
+        return fromEpochMillis(System.currentTimeMillis());
+    }
+
+    static UUID fromEpochMillis(long epochMillis) {
+        byte[] random = new byte[10];
+        RANDOM.nextBytes(random);
+
+        long randA = ((random[0] & 0x0FL) << 8) | (random[1] & 0xFFL);
+        long randB = 0;
+        for (int i = 2; i < 10; i++) {
+            randB = (randB << 8) | (random[i] & 0xFFL);
+        }
+
+        long mostSigBits = ((epochMillis & 0xFFFF_FFFF_FFFFL) << 16) | (0x7L << 12) | randA;
+        long leastSigBits = (randB & 0x3FFF_FFFF_FFFF_FFFFL) | 0x8000_0000_0000_0000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    public static long epochMillis(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
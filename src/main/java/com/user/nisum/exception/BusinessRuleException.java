@@ -8,4 +8,8 @@ public class BusinessRuleException extends RuntimeException {
     public BusinessRuleException(String message) {
         super(message);
     }
+
+    protected BusinessRuleException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 } 
\ No newline at end of file
@@ -1,17 +1,30 @@
 package com.user.nisum.exception;
 
 import com.user.nisum.dtos.ErrorDTODTO;
+import jakarta.validation.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.stream.Collectors;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private final StackTraceRateLimiter stackTraces;
+
+    public GlobalExceptionHandler(StackTraceRateLimiter stackTraces) {
+        this.stackTraces = stackTraces;
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorDTODTO> handleValidationExceptions(MethodArgumentNotValidException ex) {
         String errorMessage = ex.getBindingResult().getFieldErrors().stream()
@@ -24,6 +37,35 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ErrorDTODTO> handleInvalidRequestException(InvalidRequestException ex) {
+        ErrorDTODTO error = new ErrorDTODTO();
+        error.setMensaje(ex.getMessage());
+        
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    // Parámetros de query/path que no cumplen las restricciones del contrato OpenAPI
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ErrorDTODTO> handleConstraintViolationException(ConstraintViolationException ex) {
+        String errorMessage = ex.getConstraintViolations().stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining(", "));
+        
+        ErrorDTODTO error = new ErrorDTODTO();
+        error.setMensaje(errorMessage);
+        
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorDTODTO> handleTypeMismatchException(MethodArgumentTypeMismatchException ex) {
+        ErrorDTODTO error = new ErrorDTODTO();
+        error.setMensaje(ex.getName() + ": valor inválido");
+        
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
     @ExceptionHandler(BusinessRuleException.class)
     public ResponseEntity<ErrorDTODTO> handleBusinessRuleException(BusinessRuleException ex) {
         ErrorDTODTO error = new ErrorDTODTO();
@@ -37,6 +79,14 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
     }
 
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<ErrorDTODTO> handleInvalidRefreshTokenException(InvalidRefreshTokenException ex) {
+        ErrorDTODTO error = new ErrorDTODTO();
+        error.setMensaje(ex.getMessage());
+        
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ErrorDTODTO> handleResourceNotFoundException(ResourceNotFoundException ex) {
         ErrorDTODTO error = new ErrorDTODTO();
@@ -45,10 +95,34 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorDTODTO> handleServiceUnavailableException(ServiceUnavailableException ex) {
+        ErrorDTODTO error = new ErrorDTODTO();
+        error.setMensaje(ex.getMessage());
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorDTODTO> handleTooManyRequestsException(TooManyRequestsException ex) {
+        ErrorDTODTO error = new ErrorDTODTO();
+        error.setMensaje(ex.getMessage());
+        
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorDTODTO> handleGenericException(Exception ex) {
-        System.err.println("Error no manejado: " + ex.getMessage());
-        ex.printStackTrace();
+        // Un error repetido se registra completo una vez por intervalo y después solo con su mensaje
+        if (stackTraces.tryAcquire(ex)) {
+            log.error("Error no manejado", ex);
+        } else {
+            log.error("Error no manejado (stack trace omitido, repetido): {}", ex.toString());
+        }
         
         ErrorDTODTO error = new ErrorDTODTO();
         error.setMensaje("Error interno del servidor: " + ex.getMessage());
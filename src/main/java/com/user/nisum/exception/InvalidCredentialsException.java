@@ -0,0 +1,11 @@
+package com.user.nisum.exception;
+
+/**
+ * Credenciales inválidas en el login. No captura stack trace: es un resultado
+ * esperado y frecuente (p. ej. credential stuffing), no un error de programación.
+ */
+public class InvalidCredentialsException extends BusinessRuleException {
+    public InvalidCredentialsException() {
+        super("Credenciales inválidas", false);
+    }
+}
@@ -0,0 +1,11 @@
+package com.user.nisum.exception;
+
+/**
+ * Refresh token desconocido, expirado, revocado o reutilizado. Sin stack trace,
+ * igual que {@link InvalidCredentialsException}.
+ */
+public class InvalidRefreshTokenException extends BusinessRuleException {
+    public InvalidRefreshTokenException() {
+        super("Refresh token inválido o expirado", false);
+    }
+}
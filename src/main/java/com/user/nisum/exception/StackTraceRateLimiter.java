@@ -0,0 +1,67 @@
+package com.user.nisum.exception;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limita los stack traces en el log a uno por intervalo para cada error distinto
+ * (tipo de excepción y frame donde se lanzó).
+ *
+ * En una tormenta de errores iguales el primero se registra completo y los siguientes
+ * solo con el mensaje, así el log no se llena de stack traces idénticos ni se paga su
+ * formateo en cada petición. Los omitidos se cuentan en {@code logging.stacktraces.suppressed}.
+ */
+@Component
+public class StackTraceRateLimiter {
+
+    // Con más errores distintos que esto se omiten los stack traces de los nuevos
+    private static final int MAX_TRACKED = 1000;
+
+    private final long intervalNanos;
+    private final ConcurrentHashMap<String, AtomicLong> nextAllowed = new ConcurrentHashMap<>();
+    private final Counter suppressedCounter;
+
+    public StackTraceRateLimiter(@Value("${diagnostics.logging.stack-trace-interval:PT1M}") Duration interval,
+                                 MeterRegistry meterRegistry) {
+        this.intervalNanos = interval.toNanos();
+        this.suppressedCounter = Counter.builder("logging.stacktraces.suppressed")
+                .description("Stack traces omitidos por repetir un error ya registrado en el intervalo")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return true si el stack trace de este error debe registrarse ahora
+     */
+    public boolean tryAcquire(Throwable error) {
+        String key = key(error);
+        AtomicLong next = nextAllowed.get(key);
+        if (next == null) {
+            if (nextAllowed.size() >= MAX_TRACKED) {
+                suppressedCounter.increment();
+                return false;
+            }
+            next = nextAllowed.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+        }
+
+        long now = System.nanoTime();
+        long allowedAt = next.get();
+        if ((allowedAt == Long.MIN_VALUE || now - allowedAt >= 0) && next.compareAndSet(allowedAt, now + intervalNanos)) {
+            return true;
+        }
+        suppressedCounter.increment();
+        return false;
+    }
+
+    private static String key(Throwable error) {
+        StackTraceElement[] frames = error.getStackTrace();
+        return frames.length == 0
+                ? error.getClass().getName()
+                : error.getClass().getName() + '@' + frames[0];
+    }
+}
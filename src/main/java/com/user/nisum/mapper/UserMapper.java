@@ -3,6 +3,7 @@ package com.user.nisum.mapper;
 import com.user.nisum.dtos.PhoneDTODTO;
 import com.user.nisum.dtos.UserRegistrationRequestDTO;
 import com.user.nisum.dtos.UserRegistrationResponseDTO;
+import com.user.nisum.dtos.UserSummaryDTO;
 import com.user.nisum.entity.Phone;
 import com.user.nisum.entity.User;
 import org.mapstruct.Mapper;
@@ -23,12 +24,19 @@ public interface UserMapper {
     @Mapping(target = "modified", ignore = true)
     @Mapping(target = "lastLogin", ignore = true)
     @Mapping(target = "isActive", ignore = true)
+    @Mapping(target = "newEntity", ignore = true)
     @Mapping(target = "phones", source = "phones")
     User toEntity(UserRegistrationRequestDTO request);
     
     @Mapping(target = "phones", source = "phones")
     UserRegistrationResponseDTO toResponse(User user);
     
+    @Mapping(target = "isactive", source = "isActive")
+    @Mapping(target = "phones", source = "phones")
+    UserSummaryDTO toSummary(User user);
+    
+    List<UserSummaryDTO> toSummaryList(List<User> users);
+    
     @Mapping(target = "user", ignore = true)
     @Mapping(target = "id", ignore = true)
     Phone toPhoneEntity(PhoneDTODTO phoneDTO);
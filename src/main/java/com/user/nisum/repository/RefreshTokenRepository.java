@@ -0,0 +1,34 @@
+package com.user.nisum.repository;
+
+import com.user.nisum.entity.RefreshToken;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
+    
+    // El usuario se trae en la misma consulta para firmar el nuevo access token
+    @EntityGraph(attributePaths = "user")
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+    
+    // Consumo condicional: de dos rotaciones concurrentes del mismo token solo una actualiza la fila
+    @Modifying
+    @Query("update RefreshToken r set r.usedAt = :now where r.id = :id and r.usedAt is null")
+    int markUsed(@Param("id") UUID id, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("update RefreshToken r set r.usedAt = :now where r.familyId = :familyId and r.usedAt is null")
+    int revokeFamily(@Param("familyId") UUID familyId, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("delete from RefreshToken r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
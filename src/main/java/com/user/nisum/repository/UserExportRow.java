@@ -0,0 +1,21 @@
+package com.user.nisum.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Fila plana de la exportación: un usuario con uno de sus teléfonos (o sin
+ * teléfono si no tiene). Al ser una proyección y no una entidad, no queda
+ * registrada en el contexto de persistencia mientras se recorre el cursor.
+ */
+public record UserExportRow(UUID id,
+                            String name,
+                            String email,
+                            LocalDateTime created,
+                            LocalDateTime modified,
+                            LocalDateTime lastLogin,
+                            Boolean isActive,
+                            String phoneNumber,
+                            String phoneCitycode,
+                            String phoneContrycode) {
+}
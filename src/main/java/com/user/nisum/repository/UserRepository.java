@@ -1,16 +1,75 @@
 package com.user.nisum.repository;
 
 import com.user.nisum.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificationExecutor<User> {
     
     Optional<User> findByEmail(String email);
     
+    // Usuario y teléfonos en una sola consulta; read-only evita el snapshot para dirty checking
+    @EntityGraph(attributePaths = "phones")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
+    Optional<User> findReadOnlyWithPhonesByEmail(String email);
+    
+    // Para los flujos que modifican al usuario (login, último login) y luego devuelven sus teléfonos
+    @EntityGraph(attributePaths = "phones")
+    Optional<User> findWithPhonesById(UUID id);
+    
+    @EntityGraph(attributePaths = "phones")
+    Optional<User> findWithPhonesByEmail(String email);
+    
     boolean existsByEmail(String email);
+    
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
+    /**
+     * Recorre todos los usuarios con sus teléfonos como filas planas, agrupadas por
+     * usuario. Se lee con un cursor forward-only: debe consumirse dentro de una
+     * transacción y cerrarse al terminar.
+     */
+    @Query("select new com.user.nisum.repository.UserExportRow(u.id, u.name, u.email, u.created, u.modified, "
+            + "u.lastLogin, u.isActive, p.number, p.citycode, p.contrycode) "
+            + "from User u left join u.phones p order by u.id, p.id")
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<UserExportRow> streamAllForExport();
+    
+    // Carga del filtro de correos registrados; mismo contrato de cursor que streamAllForExport
+    @Query("select u.email from User u")
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<String> streamAllEmails();
+    
+    // Altas recientes de cualquier instancia para el refresco del filtro; usa el índice por created
+    @Query("select u.email from User u where u.created >= :since")
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<String> streamEmailsCreatedSince(@Param("since") LocalDateTime since);
+    
+    @Query("select u.id from User u where u.isActive = false")
+    List<UUID> findInactiveUserIds();
 } 
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.user.nisum.repository;
+
+import com.user.nisum.entity.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Filtros del listado de usuarios. Cada filtro es opcional: con valor null no
+ * agrega condición, para que la consulta use el índice más específico posible.
+ */
+public final class UserSpecifications {
+
+    private UserSpecifications() {
+    }
+
+    public static Specification<User> isActive(Boolean isActive) {
+        return (root, query, cb) -> isActive == null ? null : cb.equal(root.get("isActive"), isActive);
+    }
+
+    public static Specification<User> createdFrom(LocalDateTime from) {
+        return (root, query, cb) -> from == null ? null : cb.greaterThanOrEqualTo(root.get("created"), from);
+    }
+
+    public static Specification<User> createdBefore(LocalDateTime to) {
+        return (root, query, cb) -> to == null ? null : cb.lessThan(root.get("created"), to);
+    }
+
+    /**
+     * Usuarios posteriores a la posición (created, id) en el orden del listado.
+     */
+    public static Specification<User> after(LocalDateTime created, UUID id) {
+        return (root, query, cb) -> created == null ? null : cb.or(
+                cb.greaterThan(root.get("created"), created),
+                cb.and(cb.equal(root.get("created"), created), cb.greaterThan(root.get("id"), id)));
+    }
+}
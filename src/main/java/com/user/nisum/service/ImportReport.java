@@ -0,0 +1,17 @@
+package com.user.nisum.service;
+
+import java.time.Duration;
+
+/**
+ * Resultado de una importación masiva de usuarios.
+ *
+ * Los contadores corresponden a esta ejecución; {@code resumedFrom} indica cuántos
+ * registros se saltaron por haber sido confirmados en una ejecución anterior.
+ */
+public record ImportReport(long resumedFrom, long read, long created, long duplicates, long rejected, Duration elapsed) {
+
+    public double rowsPerSecond() {
+        long millis = elapsed.toMillis();
+        return millis == 0 ? read : read * 1000.0 / millis;
+    }
+}
@@ -1,5 +1,6 @@
 package com.user.nisum.service;
 
+import java.util.Optional;
 import java.util.UUID;
 
 public interface JwtService {
@@ -7,4 +8,5 @@ public interface JwtService {
     String extractUserId(String token);
     String extractEmail(String token);
     boolean isTokenValid(String token);
-} 
\ No newline at end of file
+    Optional<VerifiedToken> verifyToken(String token);
+}
@@ -0,0 +1,8 @@
+package com.user.nisum.service;
+
+import java.util.UUID;
+
+public interface RefreshTokenService {
+    String issue(UUID userId);
+    TokenPair refresh(String refreshToken);
+}
@@ -0,0 +1,7 @@
+package com.user.nisum.service;
+
+/**
+ * Access token JWT y refresh token opaco emitidos juntos.
+ */
+public record TokenPair(String accessToken, String refreshToken) {
+}
@@ -0,0 +1,10 @@
+package com.user.nisum.service;
+
+import com.user.nisum.dtos.BatchRegistrationResponseDTO;
+import com.user.nisum.dtos.UserRegistrationRequestDTO;
+
+import java.util.List;
+
+public interface UserBatchService {
+    BatchRegistrationResponseDTO registerUsers(List<UserRegistrationRequestDTO> requests);
+}
@@ -0,0 +1,8 @@
+package com.user.nisum.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface UserExportService {
+    long exportUsers(OutputStream output) throws IOException;
+}
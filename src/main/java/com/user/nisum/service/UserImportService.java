@@ -0,0 +1,7 @@
+package com.user.nisum.service;
+
+import java.nio.file.Path;
+
+public interface UserImportService {
+    ImportReport importUsers(Path file);
+}
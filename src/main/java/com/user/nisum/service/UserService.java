@@ -1,14 +1,18 @@
 package com.user.nisum.service;
 
 import com.user.nisum.dtos.UserRegistrationRequestDTO;
+import com.user.nisum.dtos.UserPageDTO;
 import com.user.nisum.dtos.UserRegistrationResponseDTO;
 
+import java.time.OffsetDateTime;
 import java.util.UUID;
 
 public interface UserService {
     UserRegistrationResponseDTO registerUser(UserRegistrationRequestDTO request);
+    boolean isEmailAvailable(String email);
     UserRegistrationResponseDTO getUserById(UUID id);
     UserRegistrationResponseDTO getUserByEmail(String email);
     UserRegistrationResponseDTO updateLastLogin(UUID userId);
     UserRegistrationResponseDTO login(String email, String password);
+    UserPageDTO listUsers(Boolean isActive, OffsetDateTime createdFrom, OffsetDateTime createdTo, String cursor, int limit);
 } 
\ No newline at end of file
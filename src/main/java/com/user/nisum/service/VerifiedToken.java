@@ -0,0 +1,14 @@
+package com.user.nisum.service;
+
+import java.time.Instant;
+
+/**
+ * Claims de un token JWT cuya firma ya fue verificada. {@code jti} es null en
+ * los tokens emitidos antes de que se incluyera el identificador.
+ */
+public record VerifiedToken(String userId, String email, String jti, Instant expiration) {
+
+    public boolean isExpired() {
+        return !expiration.isAfter(Instant.now());
+    }
+}
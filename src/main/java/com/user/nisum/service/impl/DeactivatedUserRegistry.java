@@ -0,0 +1,98 @@
+package com.user.nisum.service.impl;
+
+import com.user.nisum.config.JwtPrincipalMode;
+import com.user.nisum.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Conjunto en memoria de usuarios desactivados.
+ *
+ * En modo de principal STATELESS el filtro JWT no consulta la base de datos,
+ * así que los tokens de usuarios con {@code isActive = false} se bloquean
+ * contra este conjunto. Se carga al arrancar, se mantiene al día con los
+ * cambios de la entidad User y se recarga periódicamente para recoger
+ * desactivaciones hechas por otras instancias. En modo DATABASE nadie lo
+ * consulta y no se carga.
+ */
+@Component
+public class DeactivatedUserRegistry {
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final Set<UUID> deactivatedUsers = ConcurrentHashMap.newKeySet();
+    // Instante (nanoTime) del último cambio local por usuario, para no pisarlo con una recarga en curso
+    private final ConcurrentHashMap<UUID, Long> localChanges = new ConcurrentHashMap<>();
+    // Lock y no synchronized: la consulta no debe fijar un hilo virtual a su carrier
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private long previousReloadStart = System.nanoTime();
+
+    @Autowired
+    public DeactivatedUserRegistry(UserRepository userRepository,
+                                   @Value("${jwt.principal-mode:DATABASE}") JwtPrincipalMode principalMode) {
+        this.userRepository = userRepository;
+        this.enabled = principalMode == JwtPrincipalMode.STATELESS;
+    }
+
+    public boolean isDeactivated(UUID userId) {
+        return deactivatedUsers.contains(userId);
+    }
+
+    public void deactivate(UUID userId) {
+        if (enabled) {
+            // El cambio se registra antes de aplicarlo: una recarga que vea el usuario ya ve el registro
+            localChanges.put(userId, System.nanoTime());
+            deactivatedUsers.add(userId);
+        }
+    }
+
+    public void reactivate(UUID userId) {
+        if (enabled) {
+            localChanges.put(userId, System.nanoTime());
+            deactivatedUsers.remove(userId);
+        }
+    }
+
+    // Se aplica sobre el conjunto vigente: un cambio local posterior al inicio de la consulta prevalece
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${jwt.deactivated-users.refresh-interval:60000}",
+            initialDelayString = "${jwt.deactivated-users.refresh-interval:60000}")
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        reloadLock.lock();
+        try {
+            long start = System.nanoTime();
+            Set<UUID> inactive = new HashSet<>(userRepository.findInactiveUserIds());
+            for (UUID userId : inactive) {
+                if (!changedSince(userId, start)) {
+                    deactivatedUsers.add(userId);
+                }
+            }
+            deactivatedUsers.removeIf(userId -> !inactive.contains(userId) && !changedSince(userId, start));
+
+            // Los cambios anteriores a la recarga previa ya están confirmados en la tabla
+            long committedBefore = previousReloadStart;
+            localChanges.values().removeIf(changedAt -> changedAt - committedBefore < 0);
+            previousReloadStart = start;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private boolean changedSince(UUID userId, long since) {
+        Long changedAt = localChanges.get(userId);
+        return changedAt != null && changedAt - since >= 0;
+    }
+}
@@ -0,0 +1,470 @@
+package com.user.nisum.service.impl;
+
+import com.user.nisum.service.VerifiedToken;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Codificador y decodificador HS256 especializado en la forma de nuestros tokens:
+ * header {@code {"alg":"HS256"}} y claims {@code email}, {@code sub}, {@code jti},
+ * {@code iat} y {@code exp}.
+ *
+ * Produce exactamente los mismos bytes que jjwt para los mismos claims (mismo orden
+ * de campos y mismo escapado JSON que Jackson), y acepta los tokens que jjwt emite.
+ * El header codificado se calcula una sola vez, las instancias de {@link Mac} se
+ * reutilizan y el payload se lee con un parser de objetos JSON planos, sin construir
+ * un árbol. Cualquier token mal formado, con firma inválida, con un
+ * algoritmo distinto de HS256 o fuera de su ventana de validez se rechaza con
+ * {@link IllegalArgumentException}.
+ */
+public final class Hs256JwtCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_KEY_BYTES = 32;
+    private static final int SIGNATURE_BYTES = 32;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    // Mismo header que emite jjwt: {"alg":"HS256"}
+    private static final byte[] HEADER = ENCODER.encode("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.US_ASCII));
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    // Huecos del pool que prueba un hilo virtual antes de clonar un Mac nuevo
+    private static final int POOL_PROBES = 4;
+
+    private final Mac prototype;
+    // Hilos de plataforma (pool de Tomcat): un Mac por hilo, sin coordinación
+    private final ThreadLocal<Mac> threadMacs;
+    // Hilos virtuales: uno por petición, así que un ThreadLocal clonaría un Mac en cada
+    // firma. Se toman prestados de un pool acotado; el uso de un Mac nunca bloquea, de
+    // modo que a la vez hay a lo sumo uno por carrier y unos pocos huecos por núcleo bastan
+    private final AtomicReferenceArray<Mac> pooledMacs;
+    private final int poolMask;
+
+    public Hs256JwtCodec(byte[] secret) {
+        // Mismo mínimo que exige jjwt (RFC 7518, sección 3.2)
+        if (secret.length < MIN_KEY_BYTES) {
+            throw new IllegalArgumentException("La clave HS256 debe tener al menos 256 bits");
+        }
+        try {
+            this.prototype = Mac.getInstance(ALGORITHM);
+            this.prototype.init(new SecretKeySpec(secret, ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+        this.threadMacs = ThreadLocal.withInitial(this::newMac);
+        int poolSize = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1;
+        this.pooledMacs = new AtomicReferenceArray<>(poolSize);
+        this.poolMask = poolSize - 1;
+    }
+
+    public String encode(String subject, String email, String jti, long issuedAtSeconds, long expirationSeconds) {
+        StringBuilder json = new StringBuilder(96 + email.length());
+        json.append('{');
+        appendString(json.append("\"email\":"), email);
+        appendString(json.append(",\"sub\":"), subject);
+        appendString(json.append(",\"jti\":"), jti);
+        json.append(",\"iat\":").append(issuedAtSeconds);
+        json.append(",\"exp\":").append(expirationSeconds);
+        json.append('}');
+        byte[] payload = ENCODER.encode(json.toString().getBytes(StandardCharsets.UTF_8));
+
+        int signingLength = HEADER.length + 1 + payload.length;
+        byte[] token = new byte[signingLength + 1 + base64Length(SIGNATURE_BYTES)];
+        System.arraycopy(HEADER, 0, token, 0, HEADER.length);
+        token[HEADER.length] = '.';
+        System.arraycopy(payload, 0, token, HEADER.length + 1, payload.length);
+        token[signingLength] = '.';
+
+        Mac mac = acquireMac();
+        byte[] signature;
+        try {
+            mac.update(token, 0, signingLength);
+            signature = ENCODER.encode(mac.doFinal());
+        } finally {
+            releaseMac(mac);
+        }
+        System.arraycopy(signature, 0, token, signingLength + 1, signature.length);
+        return new String(token, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Verifica la firma y la ventana de validez y devuelve los claims del token.
+     */
+    public VerifiedToken decode(String token) {
+        int firstDot = token.indexOf('.');
+        int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+        if (secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) {
+            throw new IllegalArgumentException("El token JWT debe tener tres segmentos");
+        }
+        byte[] bytes = token.getBytes(StandardCharsets.ISO_8859_1);
+        for (int i = 0; i < bytes.length; i++) {
+            if (!isBase64UrlOrDot(token.charAt(i))) {
+                throw new IllegalArgumentException("El token JWT contiene caracteres inválidos");
+            }
+        }
+
+        // La firma se comprueba antes de interpretar el contenido
+        Mac mac = acquireMac();
+        byte[] expected;
+        try {
+            mac.update(bytes, 0, secondDot);
+            expected = mac.doFinal();
+        } finally {
+            releaseMac(mac);
+        }
+        byte[] actual = DECODER.decode(Arrays.copyOfRange(bytes, secondDot + 1, bytes.length));
+        if (!MessageDigest.isEqual(expected, actual)) {
+            throw new IllegalArgumentException("Firma del token JWT inválida");
+        }
+
+        if (!Arrays.equals(bytes, 0, firstDot, HEADER, 0, HEADER.length)) {
+            checkHeader(DECODER.decode(Arrays.copyOfRange(bytes, 0, firstDot)));
+        }
+        Claims claims = new Claims();
+        new FlatJsonReader(DECODER.decode(Arrays.copyOfRange(bytes, firstDot + 1, secondDot)), claims).read();
+        return claims.toVerifiedToken(Instant.now());
+    }
+
+    private Mac acquireMac() {
+        Thread thread = Thread.currentThread();
+        if (!thread.isVirtual()) {
+            return threadMacs.get();
+        }
+        int start = (int) thread.threadId();
+        for (int i = 0; i < POOL_PROBES; i++) {
+            Mac mac = pooledMacs.getAndSet((start + i) & poolMask, null);
+            if (mac != null) {
+                return mac;
+            }
+        }
+        // Huecos vacíos o prestados: el Mac nuevo ocupará un hueco libre al devolverse
+        return newMac();
+    }
+
+    private void releaseMac(Mac mac) {
+        Thread thread = Thread.currentThread();
+        if (!thread.isVirtual()) {
+            return;
+        }
+        int start = (int) thread.threadId();
+        for (int i = 0; i < POOL_PROBES; i++) {
+            if (pooledMacs.compareAndSet((start + i) & poolMask, null, mac)) {
+                return;
+            }
+        }
+    }
+
+    // Clonar el prototipo evita repetir la búsqueda del provider y la inicialización
+    private Mac newMac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void checkHeader(byte[] json) {
+        Header header = new Header();
+        new FlatJsonReader(json, header).read();
+        if (!"HS256".equals(header.algorithm)) {
+            throw new IllegalArgumentException("Algoritmo del token JWT no soportado: " + header.algorithm);
+        }
+    }
+
+    private static int base64Length(int bytes) {
+        return (bytes * 4 + 2) / 3;
+    }
+
+    private static boolean isBase64UrlOrDot(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '_' || c == '.';
+    }
+
+    // Mismo escapado que Jackson por defecto: comillas, barra invertida y caracteres de control
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\b' -> json.append("\\b");
+                case '\f' -> json.append("\\f");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * Recibe los campos de un objeto JSON plano a medida que se leen.
+     */
+    private interface FieldSink {
+
+        void string(String name, String value);
+
+        void number(String name, long value);
+
+        // true, false y null: ningún campo que nos interese los usa
+        default void literal(String name) {
+        }
+    }
+
+    private static final class Header implements FieldSink {
+
+        private String algorithm;
+
+        @Override
+        public void string(String name, String value) {
+            switch (name) {
+                case "alg" -> algorithm = value;
+                case "typ", "kid" -> { }
+                // Parámetros como zip o crit cambiarían la interpretación del token
+                default -> throw new IllegalArgumentException("Parámetro de header JWT no soportado: " + name);
+            }
+        }
+
+        @Override
+        public void number(String name, long value) {
+            throw new IllegalArgumentException("Parámetro de header JWT no soportado: " + name);
+        }
+
+        // Por ejemplo b64=false (RFC 7797) cambiaría el contenido firmado
+        @Override
+        public void literal(String name) {
+            throw new IllegalArgumentException("Parámetro de header JWT no soportado: " + name);
+        }
+    }
+
+    private static final class Claims implements FieldSink {
+
+        private String subject;
+        private String email;
+        private String jti;
+        private Long expiration;
+        private Long notBefore;
+
+        @Override
+        public void string(String name, String value) {
+            switch (name) {
+                case "sub" -> subject = value;
+                case "email" -> email = value;
+                case "jti" -> jti = value;
+                default -> { }
+            }
+        }
+
+        @Override
+        public void number(String name, long value) {
+            switch (name) {
+                case "exp" -> expiration = value;
+                case "nbf" -> notBefore = value;
+                default -> { }
+            }
+        }
+
+        VerifiedToken toVerifiedToken(Instant now) {
+            if (subject == null || expiration == null) {
+                throw new IllegalArgumentException("El token JWT no tiene sub o exp");
+            }
+            Instant expiresAt = Instant.ofEpochSecond(expiration);
+            if (!expiresAt.isAfter(now)) {
+                throw new IllegalArgumentException("Token JWT expirado");
+            }
+            if (notBefore != null && now.isBefore(Instant.ofEpochSecond(notBefore))) {
+                throw new IllegalArgumentException("Token JWT todavía no válido");
+            }
+            return new VerifiedToken(subject, email, jti, expiresAt);
+        }
+    }
+
+    /**
+     * Lector de un único objeto JSON cuyos valores son strings, enteros o literales.
+     * Objetos y arreglos anidados se rechazan: ningún token nuestro los contiene.
+     */
+    private static final class FlatJsonReader {
+
+        private final byte[] json;
+        private final FieldSink sink;
+        private int pos;
+
+        FlatJsonReader(byte[] json, FieldSink sink) {
+            this.json = json;
+            this.sink = sink;
+        }
+
+        void read() {
+            skipWhitespace();
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+            } else {
+                do {
+                    skipWhitespace();
+                    String name = readString();
+                    skipWhitespace();
+                    expect(':');
+                    skipWhitespace();
+                    readValue(name);
+                    skipWhitespace();
+                } while (tryConsume(','));
+                expect('}');
+            }
+            skipWhitespace();
+            if (pos != json.length) {
+                throw malformed();
+            }
+        }
+
+        private void readValue(String name) {
+            byte c = peek();
+            if (c == '"') {
+                sink.string(name, readString());
+            } else if (c == '-' || (c >= '0' && c <= '9')) {
+                sink.number(name, readLong());
+            } else if (tryLiteral("true") || tryLiteral("false") || tryLiteral("null")) {
+                sink.literal(name);
+            } else {
+                throw malformed();
+            }
+        }
+
+        private String readString() {
+            expect('"');
+            int start = pos;
+            // Los bytes de un carácter UTF-8 multibyte nunca coinciden con '"' ni '\'
+            while (pos < json.length && json[pos] != '"' && json[pos] != '\\') {
+                pos++;
+            }
+            if (pos < json.length && json[pos] == '"') {
+                return new String(json, start, pos++ - start, StandardCharsets.UTF_8);
+            }
+            StringBuilder value = new StringBuilder(new String(json, start, pos - start, StandardCharsets.UTF_8));
+            while (true) {
+                byte c = next();
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    int runStart = pos - 1;
+                    while (pos < json.length && json[pos] != '"' && json[pos] != '\\') {
+                        pos++;
+                    }
+                    value.append(new String(json, runStart, pos - runStart, StandardCharsets.UTF_8));
+                    continue;
+                }
+                byte escaped = next();
+                switch (escaped) {
+                    case '"', '\\', '/' -> value.append((char) escaped);
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'u' -> value.append((char) readHex4());
+                    default -> throw malformed();
+                }
+            }
+        }
+
+        private int readHex4() {
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                int digit = Character.digit(next(), 16);
+                if (digit < 0) {
+                    throw malformed();
+                }
+                value = (value << 4) | digit;
+            }
+            return value;
+        }
+
+        private long readLong() {
+            boolean negative = tryConsume('-');
+            int start = pos;
+            long value = 0;
+            try {
+                while (pos < json.length && json[pos] >= '0' && json[pos] <= '9') {
+                    value = Math.addExact(Math.multiplyExact(value, 10), json[pos++] - '0');
+                }
+            } catch (ArithmeticException e) {
+                throw malformed();
+            }
+            if (pos == start || (pos < json.length && (json[pos] == '.' || json[pos] == 'e' || json[pos] == 'E'))) {
+                throw malformed();
+            }
+            return negative ? -value : value;
+        }
+
+        private boolean tryLiteral(String literal) {
+            if (pos + literal.length() > json.length) {
+                return false;
+            }
+            for (int i = 0; i < literal.length(); i++) {
+                if (json[pos + i] != literal.charAt(i)) {
+                    return false;
+                }
+            }
+            pos += literal.length();
+            return true;
+        }
+
+        private void skipWhitespace() {
+            while (pos < json.length && (json[pos] == ' ' || json[pos] == '\t' || json[pos] == '\n' || json[pos] == '\r')) {
+                pos++;
+            }
+        }
+
+        private boolean tryConsume(char c) {
+            if (pos < json.length && json[pos] == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!tryConsume(c)) {
+                throw malformed();
+            }
+        }
+
+        private byte peek() {
+            if (pos >= json.length) {
+                throw malformed();
+            }
+            return json[pos];
+        }
+
+        private byte next() {
+            byte c = peek();
+            pos++;
+            return c;
+        }
+
+        private static IllegalArgumentException malformed() {
+            return new IllegalArgumentException("Contenido JSON del token JWT mal formado");
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.user.nisum.service.impl;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Punto de reanudación de una importación: cantidad de registros del archivo ya
+ * confirmados en la base. Se guarda junto al archivo ({@code <archivo>.checkpoint})
+ * y se reemplaza de forma atómica tras cada chunk.
+ *
+ * Si el tamaño del archivo cambió desde el último checkpoint, se ignora y la
+ * importación comienza desde el principio.
+ */
+record ImportCheckpoint(Path path, long fileSize, long records) {
+
+    private static final String RECORDS = "records";
+    private static final String FILE_SIZE = "fileSize";
+
+    static ImportCheckpoint load(Path file) {
+        Path path = file.resolveSibling(file.getFileName() + ".checkpoint");
+        try {
+            long fileSize = Files.size(file);
+            if (!Files.exists(path)) {
+                return new ImportCheckpoint(path, fileSize, 0);
+            }
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            if (Long.parseLong(properties.getProperty(FILE_SIZE, "-1")) != fileSize) {
+                return new ImportCheckpoint(path, fileSize, 0);
+            }
+            return new ImportCheckpoint(path, fileSize, Long.parseLong(properties.getProperty(RECORDS, "0")));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    ImportCheckpoint advance(long records) {
+        ImportCheckpoint next = new ImportCheckpoint(path, fileSize, records);
+        next.save();
+        return next;
+    }
+
+    void delete() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void save() {
+        Properties properties = new Properties();
+        properties.setProperty(RECORDS, Long.toString(records));
+        properties.setProperty(FILE_SIZE, Long.toString(fileSize));
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                properties.store(writer, null);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
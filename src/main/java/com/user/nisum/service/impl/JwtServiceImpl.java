@@ -1,87 +1,83 @@
 package com.user.nisum.service.impl;
 
 import com.user.nisum.service.JwtService;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import com.user.nisum.service.VerifiedToken;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.function.Function;
 
 @Service
 public class JwtServiceImpl implements JwtService {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private final Long expiration;
+    private final Hs256JwtCodec codec;
+    private final VerifiedTokenCache verifiedTokenCache;
 
-    @Value("${jwt.expiration}")
-    private Long expiration;
-
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Autowired
+    public JwtServiceImpl(@Value("${jwt.secret}") String secret,
+                          @Value("${jwt.expiration}") Long expiration,
+                          VerifiedTokenCache verifiedTokenCache) {
+        this.expiration = expiration;
+        // La clave es inmutable: el codec prepara el Mac una sola vez
+        this.codec = new Hs256JwtCodec(secret.getBytes(StandardCharsets.UTF_8));
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     @Override
     public String generateToken(UUID userId, String email) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("email", email);
-        return createToken(claims, userId.toString());
-    }
-
-    private String createToken(Map<String, Object> claims, String subject) {
-        return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
-                .compact();
+        long now = System.currentTimeMillis();
+        // Identificador único del token (jti), usado para revocarlo antes de que expire
+        return codec.encode(userId.toString(), email, UUID.randomUUID().toString(),
+                now / 1000, (now + expiration) / 1000);
     }
 
     @Override
     public String extractUserId(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).userId();
     }
 
     @Override
     public String extractEmail(String token) {
-        return extractClaim(token, claims -> claims.get("email", String.class));
+        return verify(token).email();
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return Date.from(verify(token).expiration());
     }
 
-    public Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    @Override
+    public boolean isTokenValid(String token) {
+        return verifyToken(token).isPresent();
     }
 
     @Override
-    public boolean isTokenValid(String token) {
+    public Optional<VerifiedToken> verifyToken(String token) {
         try {
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
+            return Optional.of(verify(token));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Verifica firma y expiración del token. Los tokens ya verificados se
+     * resuelven desde la caché sin volver a parsear ni calcular el HMAC.
+     *
+     * @throws IllegalArgumentException si el token no es válido
+     */
+    private VerifiedToken verify(String token) {
+        VerifiedToken cached = verifiedTokenCache.get(token);
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+
+        VerifiedToken verified = codec.decode(token);
+        verifiedTokenCache.put(token, verified);
+        return verified;
+    }
+}
@@ -0,0 +1,170 @@
+package com.user.nisum.service.impl;
+
+import com.user.nisum.entity.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffer write-behind de los timestamps de último login.
+ *
+ * Con el modo habilitado, updateLastLogin solo registra el timestamp en memoria
+ * (conservando el más reciente por usuario) y el buffer se vuelca periódicamente
+ * con un UPDATE en batch JDBC que toca únicamente last_login. También se vuelca al
+ * cerrar la aplicación. El UPDATE nunca retrocede el valor, de modo que un login
+ * persistido directamente después no es pisado por un timestamp viejo del buffer.
+ */
+@Component
+public class LastLoginWriteBehindBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(LastLoginWriteBehindBuffer.class);
+
+    private static final String UPDATE_SQL =
+            "update users set last_login = ? where id = ? and (last_login is null or last_login < ?)";
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final ConcurrentHashMap<UUID, LocalDateTime> pending = new ConcurrentHashMap<>();
+    // Un lock en lugar de synchronized: el volcado espera a JDBC y un monitor tomado
+    // fijaría el hilo virtual a su carrier durante toda la escritura
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final Counter recordedCounter;
+    private final Counter writtenCounter;
+    private final Timer flushTimer;
+
+    public LastLoginWriteBehindBuffer(@Value("${user.last-login.write-behind.enabled:false}") boolean enabled,
+                                      @Value("${user.last-login.write-behind.batch-size:500}") int batchSize,
+                                      JdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      EntityManagerFactory entityManagerFactory,
+                                      MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+
+        this.recordedCounter = Counter.builder("user.last-login.recorded")
+                .description("Timestamps de último login registrados en el buffer")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("user.last-login.written")
+                .description("Filas actualizadas por los volcados del buffer")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("user.last-login.flush")
+                .description("Duración de cada volcado del buffer")
+                .register(meterRegistry);
+        Gauge.builder("user.last-login.pending", pending, Map::size)
+                .description("Usuarios con último login pendiente de escribir")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void record(UUID userId, LocalDateTime lastLogin) {
+        keepLatest(userId, lastLogin);
+        recordedCounter.increment();
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Escribe los timestamps pendientes en una transacción.
+     *
+     * @return filas actualizadas
+     */
+    @Scheduled(fixedDelayString = "${user.last-login.write-behind.flush-interval-ms:1000}")
+    public int flush() {
+        flushLock.lock();
+        try {
+            return drainAndWrite();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        int written = flush();
+        log.info("Buffer de último login volcado al cerrar: {} filas", written);
+    }
+
+    private int drainAndWrite() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        // Cada entrada se retira con su valor: un registro concurrente crea una nueva
+        // entrada que se escribe en el volcado siguiente
+        List<Map.Entry<UUID, LocalDateTime>> drained = new ArrayList<>(pending.size());
+        for (UUID userId : pending.keySet()) {
+            LocalDateTime lastLogin = pending.remove(userId);
+            if (lastLogin != null) {
+                drained.add(Map.entry(userId, lastLogin));
+            }
+        }
+
+        try {
+            int written = flushTimer.record(() -> transactionTemplate.execute(status -> write(drained)));
+            writtenCounter.increment(written);
+            // El UPDATE no pasa por Hibernate: se descartan las copias de la caché de segundo nivel
+            drained.forEach(entry -> entityManagerFactory.getCache().evict(User.class, entry.getKey()));
+            return written;
+        } catch (RuntimeException e) {
+            drained.forEach(entry -> keepLatest(entry.getKey(), entry.getValue()));
+            log.warn("No se pudo volcar el último login de {} usuarios, se reintentará", drained.size(), e);
+            return 0;
+        }
+    }
+
+    private void keepLatest(UUID userId, LocalDateTime lastLogin) {
+        pending.merge(userId, lastLogin, (current, candidate) -> candidate.isAfter(current) ? candidate : current);
+    }
+
+    private int write(List<Map.Entry<UUID, LocalDateTime>> entries) {
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, entries, batchSize, (statement, entry) -> {
+            Timestamp lastLogin = Timestamp.valueOf(entry.getValue());
+            statement.setTimestamp(1, lastLogin);
+            statement.setObject(2, entry.getKey());
+            statement.setTimestamp(3, lastLogin);
+        });
+        int written = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // Algunos drivers informan SUCCESS_NO_INFO (-2) en lugar del conteo
+                written += Math.max(count, 0);
+            }
+        }
+        return written;
+    }
+}
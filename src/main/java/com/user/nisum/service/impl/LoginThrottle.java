@@ -0,0 +1,149 @@
+package com.user.nisum.service.impl;
+
+import com.user.nisum.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Limitador de intentos de login por token bucket, por email y por IP de origen.
+ *
+ * Rechaza a quien excede el límite antes de pagar un BCrypt completo en
+ * UserServiceImpl.login. Cada bucket se actualiza sin locks (CAS sobre un
+ * estado inmutable) y los buckets inactivos se eliminan periódicamente.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final String THROTTLED_MESSAGE = "Demasiados intentos de login, intente más tarde";
+
+    private final boolean enabled;
+    private final BucketLimit emailLimit;
+    private final BucketLimit ipLimit;
+    private final long idleEvictionNanos;
+
+    private final ConcurrentHashMap<String, TokenBucket> emailBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, TokenBucket> ipBuckets = new ConcurrentHashMap<>();
+
+    private final Counter emailThrottledCounter;
+    private final Counter ipThrottledCounter;
+
+    public LoginThrottle(@Value("${login.throttle.enabled:true}") boolean enabled,
+                         @Value("${login.throttle.email.capacity:5}") int emailCapacity,
+                         @Value("${login.throttle.email.refill-per-minute:5}") int emailRefillPerMinute,
+                         @Value("${login.throttle.ip.capacity:20}") int ipCapacity,
+                         @Value("${login.throttle.ip.refill-per-minute:20}") int ipRefillPerMinute,
+                         @Value("${login.throttle.idle-eviction-ms:600000}") long idleEvictionMs,
+                         MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.emailLimit = new BucketLimit(emailCapacity, emailRefillPerMinute);
+        this.ipLimit = new BucketLimit(ipCapacity, ipRefillPerMinute);
+        this.idleEvictionNanos = TimeUnit.MILLISECONDS.toNanos(idleEvictionMs);
+
+        this.emailThrottledCounter = Counter.builder("login.throttled")
+                .tag("key", "email")
+                .description("Intentos de login rechazados por límite de tasa")
+                .register(meterRegistry);
+        this.ipThrottledCounter = Counter.builder("login.throttled")
+                .tag("key", "ip")
+                .description("Intentos de login rechazados por límite de tasa")
+                .register(meterRegistry);
+        Gauge.builder("login.throttle.buckets", this, throttle -> throttle.emailBuckets.size() + throttle.ipBuckets.size())
+                .description("Buckets de login activos")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Consume un intento para el email y la IP dados.
+     *
+     * @throws TooManyRequestsException si cualquiera de los dos buckets está vacío
+     */
+    public void acquire(String email, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+
+        if (clientIp != null) {
+            long waitNanos = ipBuckets.computeIfAbsent(clientIp, key -> new TokenBucket(ipLimit, now))
+                    .tryConsume(ipLimit, now);
+            if (waitNanos > 0) {
+                ipThrottledCounter.increment();
+                throw new TooManyRequestsException(THROTTLED_MESSAGE, toRetryAfterSeconds(waitNanos));
+            }
+        }
+
+        if (email != null) {
+            String key = email.trim().toLowerCase(Locale.ROOT);
+            long waitNanos = emailBuckets.computeIfAbsent(key, k -> new TokenBucket(emailLimit, now))
+                    .tryConsume(emailLimit, now);
+            if (waitNanos > 0) {
+                emailThrottledCounter.increment();
+                throw new TooManyRequestsException(THROTTLED_MESSAGE, toRetryAfterSeconds(waitNanos));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${login.throttle.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        emailBuckets.values().removeIf(bucket -> now - bucket.lastAccessNanos > idleEvictionNanos);
+        ipBuckets.values().removeIf(bucket -> now - bucket.lastAccessNanos > idleEvictionNanos);
+    }
+
+    public int bucketCount() {
+        return emailBuckets.size() + ipBuckets.size();
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private record BucketLimit(int capacity, double tokensPerNano) {
+
+        BucketLimit(int capacity, int refillPerMinute) {
+            this(capacity, refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1));
+        }
+    }
+
+    private record BucketState(double tokens, long refilledAtNanos) {
+    }
+
+    private static final class TokenBucket {
+
+        private final AtomicReference<BucketState> state;
+        private volatile long lastAccessNanos;
+
+        TokenBucket(BucketLimit limit, long now) {
+            this.state = new AtomicReference<>(new BucketState(limit.capacity(), now));
+            this.lastAccessNanos = now;
+        }
+
+        /**
+         * @return 0 si se consumió un token; si no, los nanosegundos hasta que haya uno disponible
+         */
+        long tryConsume(BucketLimit limit, long now) {
+            lastAccessNanos = now;
+            while (true) {
+                BucketState current = state.get();
+                long elapsed = Math.max(0, now - current.refilledAtNanos());
+                double tokens = Math.min(limit.capacity(), current.tokens() + elapsed * limit.tokensPerNano());
+
+                if (tokens < 1) {
+                    return (long) Math.ceil((1 - tokens) / limit.tokensPerNano());
+                }
+                if (state.compareAndSet(current, new BucketState(tokens - 1, Math.max(now, current.refilledAtNanos())))) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
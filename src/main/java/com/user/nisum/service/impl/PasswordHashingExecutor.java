@@ -0,0 +1,218 @@
+package com.user.nisum.service.impl;
+
+import com.user.nisum.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool dedicado para el hashing de contraseñas (BCrypt).
+ *
+ * El hashing es CPU-bound: se limita a un hilo por núcleo con una cola acotada
+ * para que una ráfaga de logins no consuma todos los hilos de Tomcat. Cuando la
+ * cola está llena el trabajo se rechaza de inmediato con
+ * {@link ServiceUnavailableException} (503 + Retry-After).
+ *
+ * Los lotes comparten un cupo de hilos ({@code password.hashing.batch-parallelism}).
+ * Por defecto usan todo el pool salvo un cuarto (al menos un hilo), que queda
+ * reservado para que un registro masivo no deje sin hilos a los registros y logins
+ * individuales.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private static final String SATURATED_MESSAGE = "Servicio temporalmente saturado, intente nuevamente";
+
+    private final ThreadPoolExecutor executor;
+    private final Semaphore batchPermits;
+    private final int batchParallelism;
+    private final long retryAfterSeconds;
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingExecutor(@Value("${password.hashing.threads:0}") int threads,
+                                   @Value("${password.hashing.queue-capacity:64}") int queueCapacity,
+                                   @Value("${password.hashing.batch-parallelism:0}") int batchParallelism,
+                                   @Value("${password.hashing.retry-after-seconds:1}") long retryAfterSeconds,
+                                   MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new HashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        int reservedThreads = Math.max(1, poolSize / 4);
+        this.batchParallelism = batchParallelism > 0 ? batchParallelism : Math.max(1, poolSize - reservedThreads);
+        this.batchPermits = new Semaphore(this.batchParallelism);
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        this.waitTimer = Timer.builder("password.hashing.wait")
+                .description("Tiempo en cola antes de empezar el hashing")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hashing.rejected")
+                .description("Tareas de hashing rechazadas por cola llena")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.queue.depth", executor, e -> e.getQueue().size())
+                .description("Tareas de hashing en espera")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hilos de hashing ocupados")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta la tarea en el pool y espera su resultado.
+     */
+    public <T> T execute(Callable<T> task) {
+        return await(submit(task));
+    }
+
+    /**
+     * Ejecuta las tareas en paralelo y devuelve los resultados en el mismo orden.
+     *
+     * El lote usa tantos hilos como permisos libres del cupo de lotes consiga; cada
+     * hilo toma la siguiente tarea pendiente hasta agotarlas, así que el lote avanza
+     * aunque obtenga un solo hilo.
+     *
+     * @throws ServiceUnavailableException si no queda cupo para lotes o el pool no
+     *                                     acepta ningún hilo del lote
+     */
+    public <T> List<T> executeAll(List<? extends Callable<T>> tasks) {
+        if (tasks.isEmpty()) {
+            return List.of();
+        }
+        int workers = 0;
+        while (workers < Math.min(tasks.size(), batchParallelism) && batchPermits.tryAcquire()) {
+            workers++;
+        }
+        if (workers == 0) {
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException(SATURATED_MESSAGE, retryAfterSeconds);
+        }
+
+        Object[] results = new Object[tasks.size()];
+        AtomicInteger next = new AtomicInteger();
+        List<Future<Void>> futures = new ArrayList<>(workers);
+        for (int worker = 0; worker < workers; worker++) {
+            try {
+                futures.add(submit(() -> {
+                    try {
+                        for (int i = next.getAndIncrement(); i < tasks.size(); i = next.getAndIncrement()) {
+                            results[i] = tasks.get(i).call();
+                        }
+                        return null;
+                    } catch (Exception | Error e) {
+                        // Los demás hilos del lote dejan de tomar tareas
+                        next.set(tasks.size());
+                        throw e;
+                    } finally {
+                        batchPermits.release();
+                    }
+                }));
+            } catch (ServiceUnavailableException e) {
+                // Cola llena: el lote sigue con los hilos ya aceptados
+                batchPermits.release(workers - worker);
+                if (futures.isEmpty()) {
+                    throw e;
+                }
+                break;
+            }
+        }
+
+        // Sin cancelar: un hilo en cola que no llega a correr no devolvería su permiso
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                next.set(tasks.size());
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Hashing de contraseña interrumpido", e);
+            } catch (ExecutionException e) {
+                next.set(tasks.size());
+                throw propagate(e);
+            }
+        }
+        @SuppressWarnings("unchecked")
+        List<T> ordered = (List<T>) Arrays.asList(results);
+        return ordered;
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            return executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return task.call();
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException(SATURATED_MESSAGE, retryAfterSeconds);
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Hashing de contraseña interrumpido", e);
+        } catch (ExecutionException e) {
+            throw propagate(e);
+        }
+    }
+
+    private static RuntimeException propagate(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hashing-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
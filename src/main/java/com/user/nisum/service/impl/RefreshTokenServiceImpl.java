@@ -0,0 +1,151 @@
+package com.user.nisum.service.impl;
+
+import com.user.nisum.entity.RefreshToken;
+import com.user.nisum.entity.User;
+import com.user.nisum.exception.InvalidRefreshTokenException;
+import com.user.nisum.repository.RefreshTokenRepository;
+import com.user.nisum.repository.UserRepository;
+import com.user.nisum.service.JwtService;
+import com.user.nisum.service.RefreshTokenService;
+import com.user.nisum.service.TokenPair;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Emisión y rotación de refresh tokens.
+ *
+ * Renovar el access token cuesta una búsqueda por índice del hash del refresh
+ * token y la firma HMAC del JWT, sin verificar la contraseña. Cada refresh token
+ * sirve una sola vez: presentar uno ya consumido revoca toda su familia.
+ */
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenServiceImpl.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtService jwtService;
+    private final Duration validity;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final Counter issuedCounter;
+    private final Counter rotatedCounter;
+    private final Counter reuseCounter;
+
+    public RefreshTokenServiceImpl(RefreshTokenRepository refreshTokenRepository,
+                                   UserRepository userRepository,
+                                   JwtService jwtService,
+                                   @Value("${jwt.refresh-token.expiration:2592000000}") long expirationMs,
+                                   MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.jwtService = jwtService;
+        this.validity = Duration.ofMillis(expirationMs);
+
+        this.issuedCounter = Counter.builder("jwt.refresh.tokens")
+                .tag("result", "issued")
+                .description("Refresh tokens emitidos")
+                .register(meterRegistry);
+        this.rotatedCounter = Counter.builder("jwt.refresh.tokens")
+                .tag("result", "rotated")
+                .description("Refresh tokens emitidos")
+                .register(meterRegistry);
+        this.reuseCounter = Counter.builder("jwt.refresh.reuse")
+                .description("Refresh tokens ya consumidos presentados de nuevo (familia revocada)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Emite el primer refresh token de una familia nueva (tras un login).
+     */
+    @Override
+    @Transactional
+    public String issue(UUID userId) {
+        String token = create(userRepository.getReferenceById(userId), UUID.randomUUID());
+        issuedCounter.increment();
+        return token;
+    }
+
+    /**
+     * Consume el refresh token y emite un access token y un refresh token nuevos.
+     * La revocación por reutilización se confirma aunque la petición falle.
+     */
+    @Override
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public TokenPair refresh(String refreshToken) {
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(InvalidRefreshTokenException::new);
+        LocalDateTime now = LocalDateTime.now();
+
+        if (stored.getUsedAt() != null || refreshTokenRepository.markUsed(stored.getId(), now) == 0) {
+            int revoked = refreshTokenRepository.revokeFamily(stored.getFamilyId(), now);
+            reuseCounter.increment();
+            log.warn("Refresh token reutilizado para el usuario {}: familia {} revocada ({} tokens vigentes)",
+                    stored.getUser().getId(), stored.getFamilyId(), revoked);
+            throw new InvalidRefreshTokenException();
+        }
+
+        User user = stored.getUser();
+        if (stored.getExpiresAt().isBefore(now) || !Boolean.TRUE.equals(user.getIsActive())) {
+            throw new InvalidRefreshTokenException();
+        }
+
+        String rotated = create(user, stored.getFamilyId());
+        rotatedCounter.increment();
+        return new TokenPair(jwtService.generateToken(user.getId(), user.getEmail()), rotated);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-token.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Refresh tokens expirados eliminados: {}", deleted);
+        }
+    }
+
+    private String create(User user, UUID familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .user(user)
+                .familyId(familyId)
+                .tokenHash(hash(token))
+                .created(now)
+                .expiresAt(now.plus(validity))
+                .build());
+        return token;
+    }
+
+    // El token tiene 256 bits aleatorios: un SHA-256 sin sal basta para no guardarlo en claro
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.user.nisum.service.impl;
+
+import com.user.nisum.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter de los correos registrados, usado para evitar la consulta a la base
+ * cuando un correo con seguridad no está registrado.
+ *
+ * Se construye desde la tabla users al arrancar, se actualiza en cada alta de esta
+ * instancia y se refresca periódicamente con las altas recientes de la tabla para
+ * recoger las de otras instancias. Es eventualmente consistente: un correo
+ * registrado en otra instancia puede figurar como disponible hasta el siguiente
+ * refresco. Mientras no termina la carga inicial (o si está deshabilitado) responde
+ * que cualquier correo podría estar registrado, de modo que siempre se consulta la
+ * base. La restricción única de la base sigue siendo la garantía final.
+ */
+@Component
+public class RegisteredEmailFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RegisteredEmailFilter.class);
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final ScalableBloomFilter filter;
+    private final Duration refreshOverlap;
+    private volatile boolean loaded;
+    // Inicio de la última lectura de la tabla; el refresco relee desde ahí menos el solapamiento
+    private volatile LocalDateTime readUpTo;
+
+    private final Counter negativeCounter;
+    private final Counter positiveCounter;
+    private final Counter falsePositiveCounter;
+
+    public RegisteredEmailFilter(UserRepository userRepository,
+                                 @Value("${user.email-filter.enabled:true}") boolean enabled,
+                                 @Value("${user.email-filter.initial-capacity:100000}") long initialCapacity,
+                                 @Value("${user.email-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                                 @Value("${user.email-filter.refresh-overlap:PT5M}") Duration refreshOverlap,
+                                 MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.filter = new ScalableBloomFilter(initialCapacity, falsePositiveRate);
+        this.refreshOverlap = refreshOverlap;
+
+        this.negativeCounter = Counter.builder("user.email.filter.checks")
+                .tag("result", "negative")
+                .description("Consultas de correo resueltas por el filtro sin acceder a la base")
+                .register(meterRegistry);
+        this.positiveCounter = Counter.builder("user.email.filter.checks")
+                .tag("result", "positive")
+                .description("Consultas de correo que el filtro deriva a la base")
+                .register(meterRegistry);
+        this.falsePositiveCounter = Counter.builder("user.email.filter.false.positives")
+                .description("Positivos del filtro que la base no confirmó")
+                .register(meterRegistry);
+        Gauge.builder("user.email.filter.elements", filter, ScalableBloomFilter::approximateElementCount)
+                .description("Correos agregados al filtro")
+                .register(meterRegistry);
+        Gauge.builder("user.email.filter.bytes", filter, f -> f.bitSize() / 8.0)
+                .description("Memoria ocupada por los bits del filtro")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        LocalDateTime readStart = LocalDateTime.now();
+        try (Stream<String> emails = userRepository.streamAllEmails()) {
+            emails.forEach(filter::add);
+        }
+        readUpTo = readStart;
+        loaded = true;
+        log.info("Filtro de correos registrados cargado: {} correos, {} KB, {} ms",
+                filter.approximateElementCount(), filter.bitSize() / 8 / 1024, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Agrega las altas de la tabla desde el refresco anterior. El solapamiento cubre
+     * transacciones confirmadas después de su {@code created} y el desfase de reloj
+     * entre instancias; releer un correo ya agregado no cambia el filtro.
+     */
+    @Scheduled(fixedDelayString = "${user.email-filter.refresh-interval:60000}",
+            initialDelayString = "${user.email-filter.refresh-interval:60000}")
+    @Transactional(readOnly = true)
+    public void refresh() {
+        if (!enabled || !loaded) {
+            return;
+        }
+        LocalDateTime readStart = LocalDateTime.now();
+        try (Stream<String> emails = userRepository.streamEmailsCreatedSince(readUpTo.minus(refreshOverlap))) {
+            emails.forEach(filter::add);
+        }
+        readUpTo = readStart;
+    }
+
+    /**
+     * @return false solo si el correo con seguridad no está registrado
+     */
+    public boolean mightBeRegistered(String email) {
+        if (!enabled || !loaded) {
+            return true;
+        }
+        boolean mightContain = filter.mightContain(email);
+        (mightContain ? positiveCounter : negativeCounter).increment();
+        return mightContain;
+    }
+
+    /**
+     * Registra un correo dado de alta. Se llama antes del commit: si la transacción
+     * se revierte solo queda un falso positivo.
+     */
+    public void add(String email) {
+        if (enabled) {
+            filter.add(email);
+        }
+    }
+
+    public void recordFalsePositive() {
+        falsePositiveCounter.increment();
+    }
+}
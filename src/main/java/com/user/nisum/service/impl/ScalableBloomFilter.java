@@ -0,0 +1,157 @@
+package com.user.nisum.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter escalable de strings (Almeida et al., 2007), seguro para uso concurrente.
+ *
+ * Cuando el filtro activo alcanza su capacidad se agrega otro con el doble de
+ * capacidad y la mitad de tasa de falsos positivos, de modo que la tasa total se
+ * mantiene por debajo de la configurada sin importar cuántos elementos se agreguen.
+ * Los bits se fijan con CAS: {@link #add(String)} y {@link #mightContain(String)}
+ * no bloquean; solo el crecimiento se sincroniza.
+ */
+public final class ScalableBloomFilter {
+
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final double falsePositiveRate;
+    private volatile List<Slice> slices;
+
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("La capacidad inicial debe ser positiva");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("La tasa de falsos positivos debe estar entre 0 y 1");
+        }
+        this.falsePositiveRate = falsePositiveRate;
+        // La suma de la serie geométrica de tasas por filtro queda acotada por falsePositiveRate
+        this.slices = List.of(new Slice(initialCapacity, falsePositiveRate * (1 - TIGHTENING_RATIO)));
+    }
+
+    public void add(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        if (mightContain(hash1, hash2)) {
+            return;
+        }
+        activeSlice().add(hash1, hash2);
+    }
+
+    public boolean mightContain(String value) {
+        long hash1 = hash(value);
+        return mightContain(hash1, mix(hash1 ^ 0x9E3779B97F4A7C15L));
+    }
+
+    public long approximateElementCount() {
+        return slices.stream().mapToLong(slice -> slice.count.get()).sum();
+    }
+
+    public long bitSize() {
+        return slices.stream().mapToLong(slice -> slice.numBits).sum();
+    }
+
+    public int sliceCount() {
+        return slices.size();
+    }
+
+    public double falsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    private boolean mightContain(long hash1, long hash2) {
+        for (Slice slice : slices) {
+            if (slice.mightContain(hash1, hash2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Slice activeSlice() {
+        List<Slice> current = slices;
+        Slice last = current.get(current.size() - 1);
+        if (last.count.get() < last.capacity) {
+            return last;
+        }
+        synchronized (this) {
+            current = slices;
+            last = current.get(current.size() - 1);
+            if (last.count.get() >= last.capacity) {
+                List<Slice> grown = new ArrayList<>(current);
+                last = new Slice(last.capacity * GROWTH_FACTOR, last.falsePositiveRate * TIGHTENING_RATIO);
+                grown.add(last);
+                slices = List.copyOf(grown);
+            }
+            return last;
+        }
+    }
+
+    // FNV-1a de 64 bits sobre UTF-8, con mezcla final para repartir los bits
+    private static long hash(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private static final class Slice {
+
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final long numBits;
+        private final int numHashes;
+        private final AtomicLongArray bits;
+        private final AtomicLong count = new AtomicLong();
+
+        Slice(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.numBits = Math.max(64, Math.ceilDiv(optimalBits, 64) * 64);
+            this.numHashes = Math.max(1, (int) Math.round((double) numBits / capacity * Math.log(2)));
+            this.bits = new AtomicLongArray(Math.toIntExact(numBits / 64));
+        }
+
+        // Doble hashing (Kirsch-Mitzenmacher): el i-ésimo índice es hash1 + i * hash2
+        void add(long hash1, long hash2) {
+            for (int i = 0; i < numHashes; i++) {
+                long index = Math.floorMod(hash1 + i * hash2, numBits);
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+            }
+            count.incrementAndGet();
+        }
+
+        boolean mightContain(long hash1, long hash2) {
+            for (int i = 0; i < numHashes; i++) {
+                long index = Math.floorMod(hash1 + i * hash2, numBits);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.user.nisum.service.impl;
+
+import com.user.nisum.entity.RevokedToken;
+import com.user.nisum.exception.InvalidRequestException;
+import com.user.nisum.repository.RevokedTokenRepository;
+import com.user.nisum.service.VerifiedToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Conjunto en memoria de los JWT revocados, indexado por jti.
+ *
+ * El filtro JWT consulta solo este mapa, sin ida a la base de datos. Cada entrada
+ * guarda la expiración del token y se descarta una vez pasada, porque el token ya
+ * no supera la verificación de firma y expiración. Las revocaciones se persisten
+ * en revoked_tokens: el mapa se reconstruye desde la tabla al arrancar y se recarga
+ * periódicamente para recoger las revocaciones hechas por otras instancias.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final ConcurrentHashMap<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    private final Counter revocationCounter;
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository, MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+
+        this.revocationCounter = Counter.builder("jwt.revocations")
+                .description("Tokens JWT revocados en esta instancia")
+                .register(meterRegistry);
+        Gauge.builder("jwt.revoked.tokens", revoked, Map::size)
+                .description("Tokens revocados aún no expirados retenidos en memoria")
+                .register(meterRegistry);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        Instant expiration = revoked.get(jti);
+        if (expiration == null) {
+            return false;
+        }
+        if (!expiration.isAfter(Instant.now())) {
+            revoked.remove(jti, expiration);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Revoca el token hasta su expiración. Revocar dos veces el mismo token no tiene efecto.
+     */
+    public void revoke(VerifiedToken token) {
+        if (token.jti() == null) {
+            throw new InvalidRequestException("El token no tiene identificador (jti) y no puede revocarse");
+        }
+        if (revoked.containsKey(token.jti())) {
+            return;
+        }
+        // Primero se persiste: si falla, la revocación no queda solo en esta instancia
+        try {
+            revokedTokenRepository.save(RevokedToken.builder()
+                    .jti(token.jti())
+                    .userId(UUID.fromString(token.userId()))
+                    .expiresAt(token.expiration())
+                    .revokedAt(Instant.now())
+                    .build());
+            revocationCounter.increment();
+        } catch (DataIntegrityViolationException e) {
+            // Otra instancia ya lo revocó y esta todavía no recargó la tabla
+            log.debug("Token {} ya revocado", token.jti());
+        }
+        revoked.put(token.jti(), token.expiration());
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    // Se agrega sobre el mapa vigente: una revocación local concurrente con la recarga no se pierde
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval:60000}",
+            initialDelayString = "${jwt.revocation.refresh-interval:60000}")
+    public void reload() {
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(Instant.now())) {
+            revoked.put(token.getJti(), token.getExpiresAt());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        revoked.values().removeIf(expiration -> !expiration.isAfter(now));
+        int deleted = revokedTokenRepository.deleteExpired(now);
+        if (deleted > 0) {
+            log.info("Revocaciones de tokens expirados eliminadas: {}", deleted);
+        }
+    }
+}
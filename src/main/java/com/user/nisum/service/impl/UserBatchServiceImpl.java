@@ -0,0 +1,177 @@
+package com.user.nisum.service.impl;
+
+import com.user.nisum.config.BoundedPasswordEncoder;
+import com.user.nisum.dtos.BatchRegistrationResponseDTO;
+import com.user.nisum.dtos.BatchRegistrationResultDTO;
+import com.user.nisum.dtos.UserRegistrationRequestDTO;
+import com.user.nisum.entity.Phone;
+import com.user.nisum.entity.User;
+import com.user.nisum.entity.UuidV7;
+import com.user.nisum.exception.BusinessRuleException;
+import com.user.nisum.mapper.UserMapper;
+import com.user.nisum.repository.UserRepository;
+import com.user.nisum.service.JwtService;
+import com.user.nisum.service.UserBatchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Registro de usuarios en lote.
+ *
+ * Los correos ya registrados se resuelven con un único SELECT (omitido si el filtro
+ * de correos registrados los descarta a todos) para poder informar el resultado por
+ * ítem; las contraseñas se codifican en paralelo y los usuarios con sus teléfonos se
+ * insertan en batch JDBC dentro de una sola transacción. El hashing ocurre antes de
+ * abrirla, así que la conexión solo se toma durante los INSERT.
+ *
+ * Si el INSERT choca con un correo registrado entretanto (p. ej. en otra instancia,
+ * antes de que el filtro lo recoja) se consultan todos los correos del lote, los ya
+ * registrados se informan como duplicados y el resto se inserta una vez más.
+ */
+@Service
+public class UserBatchServiceImpl implements UserBatchService {
+
+    private static final String DUPLICATE_EMAIL_MESSAGE = "El correo ya registrado";
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final JwtService jwtService;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final RegisteredEmailFilter registeredEmailFilter;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public UserBatchServiceImpl(UserRepository userRepository,
+                                UserMapper userMapper,
+                                JwtService jwtService,
+                                BoundedPasswordEncoder passwordEncoder,
+                                RegisteredEmailFilter registeredEmailFilter,
+                                PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.jwtService = jwtService;
+        this.passwordEncoder = passwordEncoder;
+        this.registeredEmailFilter = registeredEmailFilter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public BatchRegistrationResponseDTO registerUsers(List<UserRegistrationRequestDTO> requests) {
+        if (requests.isEmpty()) {
+            return new BatchRegistrationResponseDTO().total(0).created(0).failed(0).results(List.of());
+        }
+        BatchRegistrationResultDTO[] results = new BatchRegistrationResultDTO[requests.size()];
+
+        // Correos ya registrados o repetidos dentro del lote (gana la primera aparición);
+        // solo se consultan en la base los que el filtro no descarta
+        List<String> candidates = requests.stream()
+                .map(UserRegistrationRequestDTO::getEmail)
+                .distinct()
+                .filter(registeredEmailFilter::mightBeRegistered)
+                .toList();
+        Set<String> existingEmails = candidates.isEmpty()
+                ? Set.of()
+                : new HashSet<>(userRepository.findExistingEmails(candidates));
+        Set<String> batchEmails = new HashSet<>();
+        List<Integer> accepted = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            String email = requests.get(i).getEmail();
+            if (existingEmails.contains(email) || !batchEmails.add(email)) {
+                results[i] = duplicateEmail(i);
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        List<String> encodedPasswords = passwordEncoder.encodeAll(
+                accepted.stream().map(i -> requests.get(i).getPassword()).toList());
+
+        List<User> users;
+        try {
+            users = insertUsers(requests, accepted, encodedPasswords);
+        } catch (DataIntegrityViolationException e) {
+            if (!UserServiceImpl.isDuplicateEmail(e)) {
+                throw e;
+            }
+            // Otro registro ganó la carrera, quizá en otra instancia y aún fuera del filtro:
+            // se revisan todos los correos del lote, no solo los que el filtro señaló
+            Set<String> registered = new HashSet<>(userRepository.findExistingEmails(
+                    accepted.stream().map(i -> requests.get(i).getEmail()).toList()));
+            registered.forEach(registeredEmailFilter::add);
+            List<Integer> remaining = new ArrayList<>(accepted.size());
+            List<String> remainingPasswords = new ArrayList<>(accepted.size());
+            for (int k = 0; k < accepted.size(); k++) {
+                int index = accepted.get(k);
+                if (registered.contains(requests.get(index).getEmail())) {
+                    results[index] = duplicateEmail(index);
+                } else {
+                    remaining.add(index);
+                    remainingPasswords.add(encodedPasswords.get(k));
+                }
+            }
+            accepted = remaining;
+            try {
+                users = insertUsers(requests, accepted, remainingPasswords);
+            } catch (DataIntegrityViolationException retry) {
+                if (UserServiceImpl.isDuplicateEmail(retry)) {
+                    throw new BusinessRuleException("Uno o más correos del lote fueron registrados concurrentemente, reintente el lote");
+                }
+                throw retry;
+            }
+        }
+        users.forEach(user -> registeredEmailFilter.add(user.getEmail()));
+
+        for (int k = 0; k < accepted.size(); k++) {
+            int index = accepted.get(k);
+            results[index] = new BatchRegistrationResultDTO()
+                    .index(index)
+                    .status(BatchRegistrationResultDTO.StatusEnum.CREATED)
+                    .usuario(userMapper.toResponse(users.get(k)));
+        }
+
+        return new BatchRegistrationResponseDTO()
+                .total(requests.size())
+                .created(users.size())
+                .failed(requests.size() - users.size())
+                .results(Arrays.asList(results));
+    }
+
+    // Las entidades se rearman en cada intento: las de un INSERT revertido pueden haber quedado marcadas como persistidas
+    private List<User> insertUsers(List<UserRegistrationRequestDTO> requests, List<Integer> accepted, List<String> encodedPasswords) {
+        List<User> users = new ArrayList<>(accepted.size());
+        for (int k = 0; k < accepted.size(); k++) {
+            users.add(toNewUser(requests.get(accepted.get(k)), encodedPasswords.get(k)));
+        }
+        transactionTemplate.executeWithoutResult(status -> userRepository.saveAllAndFlush(users));
+        return users;
+    }
+
+    private static BatchRegistrationResultDTO duplicateEmail(int index) {
+        return new BatchRegistrationResultDTO()
+                .index(index)
+                .status(BatchRegistrationResultDTO.StatusEnum.DUPLICATE_EMAIL)
+                .mensaje(DUPLICATE_EMAIL_MESSAGE);
+    }
+
+    private User toNewUser(UserRegistrationRequestDTO request, String encodedPassword) {
+        User user = userMapper.toEntity(request);
+        user.setId(UuidV7.randomUuid());
+        user.setPassword(encodedPassword);
+
+        List<Phone> phones = userMapper.toPhoneEntityList(request.getPhones());
+        phones.forEach(phone -> phone.setUser(user));
+        user.setPhones(phones);
+
+        user.setToken(jwtService.generateToken(user.getId(), user.getEmail()));
+        return user;
+    }
+}
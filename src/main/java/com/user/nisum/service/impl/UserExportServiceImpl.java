@@ -0,0 +1,101 @@
+package com.user.nisum.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.user.nisum.repository.UserExportRow;
+import com.user.nisum.repository.UserRepository;
+import com.user.nisum.service.UserExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Exportación de todos los usuarios como NDJSON (un usuario con sus teléfonos por línea).
+ *
+ * Las filas se leen con un cursor forward-only y se escriben directamente en el
+ * stream de salida a medida que llegan: en memoria solo está el usuario actual,
+ * sin importar cuántos usuarios haya. La contraseña y el token no se exportan.
+ */
+@Service
+public class UserExportServiceImpl implements UserExportService {
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public UserExportServiceImpl(UserRepository userRepository, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportUsers(OutputStream output) throws IOException {
+        long exported = 0;
+        try (Stream<UserExportRow> rows = userRepository.streamAllForExport();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            UUID currentUser = null;
+            Iterator<UserExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                UserExportRow row = iterator.next();
+                // Las filas llegan ordenadas por usuario: una fila nueva abre el siguiente objeto
+                if (!row.id().equals(currentUser)) {
+                    if (currentUser != null) {
+                        endUser(generator);
+                    }
+                    startUser(generator, row);
+                    currentUser = row.id();
+                    exported++;
+                }
+                if (row.phoneNumber() != null) {
+                    generator.writeStartObject();
+                    generator.writeStringField("number", row.phoneNumber());
+                    generator.writeStringField("citycode", row.phoneCitycode());
+                    generator.writeStringField("contrycode", row.phoneContrycode());
+                    generator.writeEndObject();
+                }
+            }
+            if (currentUser != null) {
+                endUser(generator);
+            }
+        }
+        return exported;
+    }
+
+    private static void startUser(JsonGenerator generator, UserExportRow row) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("id", row.id().toString());
+        generator.writeStringField("name", row.name());
+        generator.writeStringField("email", row.email());
+        writeDateTime(generator, "created", row.created());
+        writeDateTime(generator, "modified", row.modified());
+        writeDateTime(generator, "last_login", row.lastLogin());
+        generator.writeBooleanField("isactive", Boolean.TRUE.equals(row.isActive()));
+        generator.writeArrayFieldStart("phones");
+    }
+
+    private static void endUser(JsonGenerator generator) throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    // Mismo formato que las fechas de la API (OffsetDateTime en UTC)
+    private static void writeDateTime(JsonGenerator generator, String field, LocalDateTime value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeStringField(field, value.atOffset(ZoneOffset.UTC).toString());
+        }
+    }
+}
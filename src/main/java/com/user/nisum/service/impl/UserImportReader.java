@@ -0,0 +1,151 @@
+package com.user.nisum.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.user.nisum.dtos.PhoneDTODTO;
+import com.user.nisum.dtos.UserRegistrationRequestDTO;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lector secuencial de un archivo de importación que mantiene en memoria un solo
+ * registro a la vez.
+ *
+ * Formatos soportados según la extensión:
+ * - {@code .ndjson} / {@code .jsonl}: un UserRegistrationRequest JSON por línea.
+ * - {@code .csv}: encabezado {@code name,email,password,phones}; los teléfonos van
+ *   como {@code number:citycode:contrycode} separados por {@code |}.
+ *
+ * Un registro mal formado no detiene la lectura: se devuelve con su error para
+ * que se cuente como rechazado. En CSV una fila con columnas de más se rechaza y
+ * la lectura sigue en la línea siguiente; una comilla sin cerrar abarca el resto
+ * del archivo, que se rechaza como un único registro.
+ */
+abstract class UserImportReader implements Closeable {
+
+    record ImportRecord(UserRegistrationRequestDTO request, String error) {
+    }
+
+    static UserImportReader open(Path file, ObjectMapper objectMapper) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return new NdjsonReader(file, objectMapper);
+        }
+        if (name.endsWith(".csv")) {
+            return new CsvReader(file);
+        }
+        throw new IllegalArgumentException("Formato de importación no soportado: " + file.getFileName());
+    }
+
+    /**
+     * @return el siguiente registro, o null al llegar al final del archivo
+     */
+    abstract ImportRecord next() throws IOException;
+
+    private static final class NdjsonReader extends UserImportReader {
+
+        private final BufferedReader reader;
+        private final ObjectReader objectReader;
+
+        NdjsonReader(Path file, ObjectMapper objectMapper) throws IOException {
+            this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+            this.objectReader = objectMapper.readerFor(UserRegistrationRequestDTO.class);
+        }
+
+        @Override
+        ImportRecord next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+
+            try {
+                return new ImportRecord(objectReader.readValue(line), null);
+            } catch (JsonProcessingException e) {
+                return new ImportRecord(null, "JSON inválido: " + e.getOriginalMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static final class CsvReader extends UserImportReader {
+
+        private final MappingIterator<Map<String, String>> rows;
+        private long lastErrorOffset = -1;
+
+        CsvReader(Path file) throws IOException {
+            CsvMapper csvMapper = CsvMapper.builder()
+                    .enable(CsvParser.Feature.TRIM_SPACES)
+                    .build();
+            this.rows = csvMapper.readerForMapOf(String.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .readValues(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        ImportRecord next() throws IOException {
+            Map<String, String> row;
+            try {
+                if (!rows.hasNextValue()) {
+                    return null;
+                }
+                row = rows.nextValue();
+            } catch (JsonProcessingException e) {
+                // Si el parser no avanzó desde el error anterior, seguir leyendo no terminaría nunca
+                long offset = rows.getCurrentLocation().getCharOffset();
+                if (offset == lastErrorOffset) {
+                    throw e;
+                }
+                lastErrorOffset = offset;
+                return new ImportRecord(null, "Fila CSV inválida: " + e.getOriginalMessage());
+            }
+
+            UserRegistrationRequestDTO request = new UserRegistrationRequestDTO();
+            request.setName(row.get("name"));
+            request.setEmail(row.get("email"));
+            request.setPassword(row.get("password"));
+
+            List<PhoneDTODTO> phones = new ArrayList<>();
+            String phonesColumn = row.getOrDefault("phones", "");
+            for (String value : phonesColumn.isBlank() ? new String[0] : phonesColumn.split("\\|")) {
+                String[] parts = value.split(":", -1);
+                if (parts.length != 3) {
+                    return new ImportRecord(null, "Teléfono mal formado: " + value);
+                }
+                PhoneDTODTO phone = new PhoneDTODTO();
+                phone.setNumber(parts[0].trim());
+                phone.setCitycode(parts[1].trim());
+                phone.setContrycode(parts[2].trim());
+                phones.add(phone);
+            }
+            request.setPhones(phones);
+            return new ImportRecord(request, null);
+        }
+
+        @Override
+        public void close() throws IOException {
+            rows.close();
+        }
+    }
+}
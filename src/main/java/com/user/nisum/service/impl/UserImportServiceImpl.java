@@ -0,0 +1,183 @@
+package com.user.nisum.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.user.nisum.dtos.BatchRegistrationResponseDTO;
+import com.user.nisum.dtos.UserRegistrationRequestDTO;
+import com.user.nisum.exception.ServiceUnavailableException;
+import com.user.nisum.service.ImportReport;
+import com.user.nisum.service.UserBatchService;
+import com.user.nisum.service.UserImportService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Importación masiva de usuarios desde archivos NDJSON o CSV.
+ *
+ * El archivo se lee en streaming y los registros válidos se confirman en chunks de
+ * tamaño fijo a través de {@link UserBatchService} (hashing en paralelo, INSERT en
+ * batch, una transacción por chunk), por lo que la memoria usada no depende del
+ * tamaño del archivo. Tras cada chunk se guarda un checkpoint para poder reanudar
+ * una importación interrumpida.
+ *
+ * Si el pool de hashing está saturado (p. ej. otro lote ocupa su cupo) el chunk se
+ * reintenta con backoff exponencial, respetando el Retry-After, hasta
+ * {@code user.import.saturation-max-wait-ms}.
+ */
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportServiceImpl.class);
+    private static final long MIN_BACKOFF_MS = 100;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final UserBatchService userBatchService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+    private final long saturationMaxWaitMs;
+
+    @Autowired
+    public UserImportServiceImpl(UserBatchService userBatchService,
+                                 ObjectMapper objectMapper,
+                                 Validator validator,
+                                 @Value("${user.import.chunk-size:500}") int chunkSize,
+                                 @Value("${user.import.saturation-max-wait-ms:600000}") long saturationMaxWaitMs) {
+        this.userBatchService = userBatchService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.saturationMaxWaitMs = saturationMaxWaitMs;
+    }
+
+    @Override
+    public ImportReport importUsers(Path file) {
+        ImportCheckpoint checkpoint = ImportCheckpoint.load(file);
+        ImportProgress progress = new ImportProgress(file, checkpoint);
+        List<UserRegistrationRequestDTO> chunk = new ArrayList<>(chunkSize);
+
+        try (UserImportReader reader = UserImportReader.open(file, objectMapper)) {
+            // Los registros ya confirmados en una ejecución anterior solo se saltan
+            while (progress.position < checkpoint.records() && reader.next() != null) {
+                progress.position++;
+            }
+            if (progress.position > 0) {
+                log.info("Importación {}: reanudando desde el registro {}", file.getFileName(), progress.position);
+            }
+
+            UserImportReader.ImportRecord record;
+            while ((record = reader.next()) != null) {
+                progress.position++;
+                progress.read++;
+
+                String error = record.error() != null ? record.error() : validate(record.request());
+                if (error != null) {
+                    progress.rejected++;
+                    log.warn("Importación {}: registro {} rechazado: {}", file.getFileName(), progress.position, error);
+                } else {
+                    chunk.add(record.request());
+                }
+
+                if (chunk.size() == chunkSize) {
+                    commit(chunk, progress);
+                }
+            }
+            commit(chunk, progress);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        progress.checkpoint.delete();
+        ImportReport report = progress.toReport();
+        log.info("Importación {} finalizada: {} leídos, {} creados, {} duplicados, {} rechazados en {} ms ({} filas/s)",
+                file.getFileName(), report.read(), report.created(), report.duplicates(), report.rejected(),
+                report.elapsed().toMillis(), Math.round(report.rowsPerSecond()));
+        return report;
+    }
+
+    private void commit(List<UserRegistrationRequestDTO> chunk, ImportProgress progress) {
+        if (!chunk.isEmpty()) {
+            BatchRegistrationResponseDTO result = registerWithBackoff(chunk, progress);
+            progress.created += result.getCreated();
+            progress.duplicates += result.getFailed();
+            chunk.clear();
+        }
+        progress.checkpoint = progress.checkpoint.advance(progress.position);
+        log.info("Importación {}: {} registros procesados ({} filas/s)",
+                progress.file.getFileName(), progress.position, Math.round(progress.toReport().rowsPerSecond()));
+    }
+
+    // El 503 del pool llega antes del INSERT, así que reintentar el chunk no duplica registros
+    private BatchRegistrationResponseDTO registerWithBackoff(List<UserRegistrationRequestDTO> chunk, ImportProgress progress) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(saturationMaxWaitMs);
+        long backoffMs = 0;
+        while (true) {
+            try {
+                return userBatchService.registerUsers(chunk);
+            } catch (ServiceUnavailableException e) {
+                backoffMs = Math.min(MAX_BACKOFF_MS, Math.max(Math.max(MIN_BACKOFF_MS, backoffMs * 2),
+                        TimeUnit.SECONDS.toMillis(e.getRetryAfterSeconds())));
+                if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMs) - deadline > 0) {
+                    throw e;
+                }
+                log.warn("Importación {}: pool de hashing saturado, reintentando el chunk en {} ms",
+                        progress.file.getFileName(), backoffMs);
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Importación interrumpida", interrupted);
+                }
+            }
+        }
+    }
+
+    private String validate(UserRegistrationRequestDTO request) {
+        Set<ConstraintViolation<UserRegistrationRequestDTO>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private static final class ImportProgress {
+
+        private final Path file;
+        private final long resumedFrom;
+        private final long startedAt = System.nanoTime();
+        private ImportCheckpoint checkpoint;
+        private long position;
+        private long read;
+        private long created;
+        private long duplicates;
+        private long rejected;
+
+        ImportProgress(Path file, ImportCheckpoint checkpoint) {
+            this.file = file;
+            this.checkpoint = checkpoint;
+            this.resumedFrom = checkpoint.records();
+        }
+
+        ImportReport toReport() {
+            return new ImportReport(resumedFrom, read, created, duplicates, rejected,
+                    Duration.ofNanos(System.nanoTime() - startedAt));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.user.nisum.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers por etapa de las operaciones de usuario (registro, login, último login).
+ *
+ * {@code user.operation} mide la operación completa y {@code user.operation.stage}
+ * cada etapa (hash de contraseña, firma del JWT, mapeo, persistencia, ...), ambos
+ * con histograma de percentiles y con el resultado en el tag {@code outcome}. En
+ * una etapa el resultado es el de esa etapa: solo la que detecta el error lo lleva.
+ *
+ * Cada timer se registra la primera vez que se usa y queda en un arreglo indexado
+ * por los ordinales de los enums; después registrar una medición es una lectura del
+ * arreglo y un {@link Timer#record(long, TimeUnit)}, sin Timer.Sample, tags ni
+ * lambdas por llamada. La duración de la operación no incluye el commit, que ocurre
+ * al volver del método transaccional.
+ */
+@Component
+public class UserOperationMetrics {
+
+    public enum Operation {
+        REGISTRATION("registration"),
+        LOGIN("login"),
+        LAST_LOGIN("last_login");
+
+        final String tag;
+
+        Operation(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public enum Stage {
+        DUPLICATE_CHECK("duplicate_check"),
+        LOOKUP("lookup"),
+        PASSWORD_HASH("password_hash"),
+        PASSWORD_VERIFY("password_verify"),
+        JWT_SIGN("jwt_sign"),
+        REQUEST_MAPPING("request_mapping"),
+        RESPONSE_MAPPING("response_mapping"),
+        PERSIST("persist");
+
+        final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public enum Outcome {
+        SUCCESS("success"),
+        DUPLICATE_EMAIL("duplicate_email"),
+        BAD_CREDENTIALS("bad_credentials"),
+        NOT_FOUND("not_found"),
+        ERROR("error");
+
+        final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private static final Operation[] OPERATIONS = Operation.values();
+    private static final Stage[] STAGES = Stage.values();
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    private final MeterRegistry meterRegistry;
+    private final Timer[] operationTimers = new Timer[OPERATIONS.length * OUTCOMES.length];
+    private final Timer[] stageTimers = new Timer[OPERATIONS.length * STAGES.length * OUTCOMES.length];
+
+    public UserOperationMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Registra la duración de una etapa iniciada en {@code startNanos}.
+     *
+     * @return el instante de fin, que sirve de inicio a la etapa siguiente
+     */
+    public long recordStage(Operation operation, Stage stage, Outcome outcome, long startNanos) {
+        long end = System.nanoTime();
+        stageTimer(operation, stage, outcome).record(end - startNanos, TimeUnit.NANOSECONDS);
+        return end;
+    }
+
+    public void recordOperation(Operation operation, Outcome outcome, long startNanos) {
+        operationTimer(operation, outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Una carrera entre dos hilos solo registra dos veces el mismo timer: el registry devuelve la misma instancia
+    private Timer operationTimer(Operation operation, Outcome outcome) {
+        int index = operation.ordinal() * OUTCOMES.length + outcome.ordinal();
+        Timer timer = operationTimers[index];
+        if (timer == null) {
+            timer = Timer.builder("user.operation")
+                    .description("Duración de la operación de usuario completa")
+                    .tag("operation", operation.tag)
+                    .tag("outcome", outcome.tag)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            operationTimers[index] = timer;
+        }
+        return timer;
+    }
+
+    private Timer stageTimer(Operation operation, Stage stage, Outcome outcome) {
+        int index = (operation.ordinal() * STAGES.length + stage.ordinal()) * OUTCOMES.length + outcome.ordinal();
+        Timer timer = stageTimers[index];
+        if (timer == null) {
+            timer = Timer.builder("user.operation.stage")
+                    .description("Duración de cada etapa de la operación de usuario")
+                    .tag("operation", operation.tag)
+                    .tag("stage", stage.tag)
+                    .tag("outcome", outcome.tag)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            stageTimers[index] = timer;
+        }
+        return timer;
+    }
+}
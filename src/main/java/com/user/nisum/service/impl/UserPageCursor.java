@@ -0,0 +1,32 @@
+package com.user.nisum.service.impl;
+
+import com.user.nisum.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posición (created, id) del último usuario de una página, codificada como
+ * cursor opaco en Base64 URL-safe.
+ */
+record UserPageCursor(LocalDateTime created, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    String encode() {
+        String raw = created + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static UserPageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new UserPageCursor(LocalDateTime.parse(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidRequestException("Cursor de paginación inválido");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.user.nisum.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.user.nisum.dtos.UserRegistrationResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Caché read-through de respuestas de usuario indexada por email normalizado,
+ * usada por la consulta pública por email.
+ *
+ * Los flujos de escritura reemplazan la entrada con la respuesta nueva una vez
+ * confirmada la transacción; una carga desde la base solo agrega la entrada si no
+ * existe, de modo que una carga concurrente que leyó el estado anterior no pisa
+ * la respuesta de la escritura.
+ */
+@Component
+public class UserResponseCache {
+
+    private final Cache<String, UserRegistrationResponseDTO> cache;
+    private final Timer loadTimer;
+
+    public UserResponseCache(@Value("${user.email-cache.max-size:10000}") long maxSize,
+                             @Value("${user.email-cache.ttl-seconds:300}") long ttlSeconds,
+                             MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "user.email");
+        this.loadTimer = Timer.builder("user.email.cache.load")
+                .description("Tiempo de carga desde la base ante un fallo de caché")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Devuelve la respuesta en caché o la carga con {@code loader} y la guarda.
+     */
+    public UserRegistrationResponseDTO getOrLoad(String email, Supplier<UserRegistrationResponseDTO> loader) {
+        UserRegistrationResponseDTO cached = cache.getIfPresent(normalize(email));
+        // Emails que solo difieren en mayúsculas comparten clave: solo vale la entrada exacta
+        if (cached != null && cached.getEmail().equals(email)) {
+            return cached;
+        }
+        UserRegistrationResponseDTO loaded = loadTimer.record(loader);
+        cache.asMap().putIfAbsent(normalize(loaded.getEmail()), loaded);
+        return loaded;
+    }
+
+    /**
+     * Reemplaza la entrada del usuario al confirmarse la transacción en curso
+     * (o de inmediato si no hay transacción).
+     */
+    public void refreshAfterCommit(UserRegistrationResponseDTO response) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(response);
+                }
+            });
+        } else {
+            put(response);
+        }
+    }
+
+    public void invalidate(String email) {
+        cache.invalidate(normalize(email));
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private void put(UserRegistrationResponseDTO response) {
+        cache.put(normalize(response.getEmail()), response);
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
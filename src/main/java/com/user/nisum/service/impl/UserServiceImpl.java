@@ -1,24 +1,48 @@
 package com.user.nisum.service.impl;
 
+import com.user.nisum.dtos.UserPageDTO;
 import com.user.nisum.dtos.UserRegistrationRequestDTO;
 import com.user.nisum.dtos.UserRegistrationResponseDTO;
 import com.user.nisum.entity.Phone;
 import com.user.nisum.entity.User;
+import com.user.nisum.entity.UuidV7;
 import com.user.nisum.exception.BusinessRuleException;
+import com.user.nisum.exception.InvalidCredentialsException;
 import com.user.nisum.exception.ResourceNotFoundException;
 import com.user.nisum.mapper.UserMapper;
 import com.user.nisum.repository.UserRepository;
+import com.user.nisum.repository.UserSpecifications;
 import com.user.nisum.service.JwtService;
 import com.user.nisum.service.UserService;
+import com.user.nisum.service.impl.UserOperationMetrics.Outcome;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.UUID;
 
+import static com.user.nisum.service.impl.UserOperationMetrics.Operation.LAST_LOGIN;
+import static com.user.nisum.service.impl.UserOperationMetrics.Operation.LOGIN;
+import static com.user.nisum.service.impl.UserOperationMetrics.Operation.REGISTRATION;
+import static com.user.nisum.service.impl.UserOperationMetrics.Stage.DUPLICATE_CHECK;
+import static com.user.nisum.service.impl.UserOperationMetrics.Stage.JWT_SIGN;
+import static com.user.nisum.service.impl.UserOperationMetrics.Stage.LOOKUP;
+import static com.user.nisum.service.impl.UserOperationMetrics.Stage.PASSWORD_HASH;
+import static com.user.nisum.service.impl.UserOperationMetrics.Stage.PASSWORD_VERIFY;
+import static com.user.nisum.service.impl.UserOperationMetrics.Stage.PERSIST;
+import static com.user.nisum.service.impl.UserOperationMetrics.Stage.REQUEST_MAPPING;
+import static com.user.nisum.service.impl.UserOperationMetrics.Stage.RESPONSE_MAPPING;
+
 @Service
 public class UserServiceImpl implements UserService {
 
@@ -26,89 +50,281 @@ public class UserServiceImpl implements UserService {
     private final UserMapper userMapper;
     private final JwtService jwtService;
     private final PasswordEncoder passwordEncoder;
+    private final UserResponseCache userResponseCache;
+    private final RegisteredEmailFilter registeredEmailFilter;
+    private final LastLoginWriteBehindBuffer lastLoginBuffer;
+    private final UserOperationMetrics metrics;
 
     @Autowired
     public UserServiceImpl(UserRepository userRepository,
                           UserMapper userMapper,
                           JwtService jwtService,
-                          PasswordEncoder passwordEncoder) {
+                          PasswordEncoder passwordEncoder,
+                          UserResponseCache userResponseCache,
+                          RegisteredEmailFilter registeredEmailFilter,
+                          LastLoginWriteBehindBuffer lastLoginBuffer,
+                          UserOperationMetrics metrics) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.jwtService = jwtService;
         this.passwordEncoder = passwordEncoder;
+        this.userResponseCache = userResponseCache;
+        this.registeredEmailFilter = registeredEmailFilter;
+        this.lastLoginBuffer = lastLoginBuffer;
+        this.metrics = metrics;
     }
 
     @Override
     @Transactional
     public UserRegistrationResponseDTO registerUser(UserRegistrationRequestDTO request) {
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new BusinessRuleException("El correo ya registrado");
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.ERROR;
+        try {
+            // Un duplicado conocido se rechaza antes de pagar el BCrypt; el filtro evita la
+            // consulta para los correos nuevos
+            if (isEmailRegistered(request.getEmail())) {
+                outcome = Outcome.DUPLICATE_EMAIL;
+                metrics.recordStage(REGISTRATION, DUPLICATE_CHECK, outcome, start);
+                throw new BusinessRuleException("El correo ya registrado");
+            }
+            long stage = metrics.recordStage(REGISTRATION, DUPLICATE_CHECK, Outcome.SUCCESS, start);
+
+            User user = userMapper.toEntity(request);
+            // ID asignado antes de persistir para poder firmar el token y hacer un único INSERT
+            user.setId(UuidV7.randomUuid());
+            List<Phone> phones = userMapper.toPhoneEntityList(request.getPhones());
+            phones.forEach(phone -> phone.setUser(user));
+            user.setPhones(phones);
+            stage = metrics.recordStage(REGISTRATION, REQUEST_MAPPING, Outcome.SUCCESS, stage);
+
+            UserStageEvent event = UserStageEvent.begin(REGISTRATION, PASSWORD_HASH);
+            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            event.finish(Outcome.SUCCESS);
+            stage = metrics.recordStage(REGISTRATION, PASSWORD_HASH, Outcome.SUCCESS, stage);
+
+            event = UserStageEvent.begin(REGISTRATION, JWT_SIGN);
+            user.setToken(jwtService.generateToken(user.getId(), user.getEmail()));
+            event.finish(Outcome.SUCCESS);
+            stage = metrics.recordStage(REGISTRATION, JWT_SIGN, Outcome.SUCCESS, stage);
+
+            // Un duplicado concurrente (o de otra instancia) lo detecta la restricción única
+            User savedUser;
+            event = UserStageEvent.begin(REGISTRATION, PERSIST);
+            try {
+                savedUser = userRepository.saveAndFlush(user);
+            } catch (DataIntegrityViolationException e) {
+                if (isDuplicateEmail(e)) {
+                    outcome = Outcome.DUPLICATE_EMAIL;
+                    event.finish(outcome);
+                    metrics.recordStage(REGISTRATION, PERSIST, outcome, stage);
+                    throw new BusinessRuleException("El correo ya registrado");
+                }
+                event.finish(Outcome.ERROR);
+                throw e;
+            }
+            event.finish(Outcome.SUCCESS);
+            stage = metrics.recordStage(REGISTRATION, PERSIST, Outcome.SUCCESS, stage);
+
+            registeredEmailFilter.add(savedUser.getEmail());
+            UserRegistrationResponseDTO response = userMapper.toResponse(savedUser);
+            userResponseCache.refreshAfterCommit(response);
+            metrics.recordStage(REGISTRATION, RESPONSE_MAPPING, Outcome.SUCCESS, stage);
+            outcome = Outcome.SUCCESS;
+            return response;
+        } finally {
+            metrics.recordOperation(REGISTRATION, outcome, start);
         }
+    }
+
+    static boolean isDuplicateEmail(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(User.EMAIL_UNIQUE_CONSTRAINT);
+    }
+
+    @Override
+    public boolean isEmailAvailable(String email) {
+        return !isEmailRegistered(email);
+    }
 
-        User user = userMapper.toEntity(request);
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-
-        List<Phone> phones = userMapper.toPhoneEntityList(request.getPhones());
-        phones.forEach(phone -> phone.setUser(user));
-        user.setPhones(phones);
-
-        User savedUser = userRepository.save(user);
-        
-        // Generar token después de guardar el usuario para tener el ID
-        String token = jwtService.generateToken(savedUser.getId(), savedUser.getEmail());
-        savedUser.setToken(token);
-        
-        // Guardar el usuario con el token
-        User finalUser = userRepository.save(savedUser);
-        return userMapper.toResponse(finalUser);
+    private boolean isEmailRegistered(String email) {
+        if (!registeredEmailFilter.mightBeRegistered(email)) {
+            return false;
+        }
+        boolean registered = userRepository.existsByEmail(email);
+        if (!registered) {
+            registeredEmailFilter.recordFalsePositive();
+        }
+        return registered;
     }
 
     @Override
     @Transactional(readOnly = true)
     public UserRegistrationResponseDTO getUserById(UUID id) {
+        // findById pasa por la caché de segundo nivel: con la región caliente, el usuario
+        // y sus teléfonos se arman sin consultar la base
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con ID: " + id));
         return userMapper.toResponse(user);
     }
 
+    // Sin @Transactional: un acierto de caché no abre transacción; la consulta con
+    // entity graph trae los teléfonos y la del repositorio ya es read-only
     @Override
-    @Transactional(readOnly = true)
     public UserRegistrationResponseDTO getUserByEmail(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con email: " + email));
-        return userMapper.toResponse(user);
+        return userResponseCache.getOrLoad(email, () -> {
+            User user = userRepository.findReadOnlyWithPhonesByEmail(email)
+                    .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con email: " + email));
+            return userMapper.toResponse(user);
+        });
     }
 
     @Override
     @Transactional
     public UserRegistrationResponseDTO updateLastLogin(UUID userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con ID: " + userId));
-        
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.ERROR;
+        try {
+            UserRegistrationResponseDTO response = lastLoginBuffer.isEnabled()
+                    ? recordLastLogin(userId, start)
+                    : writeLastLogin(userId, start);
+            outcome = Outcome.SUCCESS;
+            return response;
+        } catch (ResourceNotFoundException e) {
+            outcome = Outcome.NOT_FOUND;
+            throw e;
+        } finally {
+            metrics.recordOperation(LAST_LOGIN, outcome, start);
+        }
+    }
+
+    private UserRegistrationResponseDTO writeLastLogin(UUID userId, long start) {
+        User user = findOrNotFound(userRepository.findWithPhonesById(userId), userId, start);
+        long stage = metrics.recordStage(LAST_LOGIN, LOOKUP, Outcome.SUCCESS, start);
+
         user.setLastLogin(LocalDateTime.now());
-        User updatedUser = userRepository.save(user);
-        
-        return userMapper.toResponse(updatedUser);
+        UserStageEvent event = UserStageEvent.begin(LAST_LOGIN, PERSIST);
+        User updatedUser = userRepository.saveAndFlush(user);
+        event.finish(Outcome.SUCCESS);
+        stage = metrics.recordStage(LAST_LOGIN, PERSIST, Outcome.SUCCESS, stage);
+
+        UserRegistrationResponseDTO response = userMapper.toResponse(updatedUser);
+        userResponseCache.refreshAfterCommit(response);
+        metrics.recordStage(LAST_LOGIN, RESPONSE_MAPPING, Outcome.SUCCESS, stage);
+        return response;
+    }
+
+    // Modo write-behind: el usuario se lee (desde la caché de segundo nivel si está
+    // caliente) sin modificarlo y el timestamp queda en el buffer
+    private UserRegistrationResponseDTO recordLastLogin(UUID userId, long start) {
+        User user = findOrNotFound(userRepository.findById(userId), userId, start);
+        long stage = metrics.recordStage(LAST_LOGIN, LOOKUP, Outcome.SUCCESS, start);
+
+        LocalDateTime now = LocalDateTime.now();
+        lastLoginBuffer.record(user.getId(), now);
+        stage = metrics.recordStage(LAST_LOGIN, PERSIST, Outcome.SUCCESS, stage);
+
+        UserRegistrationResponseDTO response = userMapper.toResponse(user);
+        response.setLastLogin(now.atOffset(ZoneOffset.UTC));
+        userResponseCache.refreshAfterCommit(response);
+        metrics.recordStage(LAST_LOGIN, RESPONSE_MAPPING, Outcome.SUCCESS, stage);
+        return response;
+    }
+
+    private User findOrNotFound(Optional<User> user, UUID userId, long start) {
+        if (user.isEmpty()) {
+            metrics.recordStage(LAST_LOGIN, LOOKUP, Outcome.NOT_FOUND, start);
+            throw new ResourceNotFoundException("Usuario no encontrado con ID: " + userId);
+        }
+        return user.get();
     }
 
     @Override
     @Transactional
     public UserRegistrationResponseDTO login(String email, String password) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new BusinessRuleException("Credenciales inválidas"));
-        
-        if (!passwordEncoder.matches(password, user.getPassword())) {
-            throw new BusinessRuleException("Credenciales inválidas");
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.ERROR;
+        try {
+            User user = userRepository.findWithPhonesByEmail(email).orElse(null);
+            if (user == null) {
+                outcome = Outcome.BAD_CREDENTIALS;
+                metrics.recordStage(LOGIN, LOOKUP, outcome, start);
+                throw new InvalidCredentialsException();
+            }
+            long stage = metrics.recordStage(LOGIN, LOOKUP, Outcome.SUCCESS, start);
+
+            UserStageEvent event = UserStageEvent.begin(LOGIN, PASSWORD_VERIFY);
+            boolean matches = passwordEncoder.matches(password, user.getPassword());
+            Outcome verification = matches ? Outcome.SUCCESS : Outcome.BAD_CREDENTIALS;
+            event.finish(verification);
+            stage = metrics.recordStage(LOGIN, PASSWORD_VERIFY, verification, stage);
+            if (!matches) {
+                outcome = Outcome.BAD_CREDENTIALS;
+                throw new InvalidCredentialsException();
+            }
+
+            // Re-hash transparente si el hash guardado usa otro algoritmo o un costo menor al vigente
+            if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+                event = UserStageEvent.begin(LOGIN, PASSWORD_HASH);
+                user.setPassword(passwordEncoder.encode(password));
+                event.finish(Outcome.SUCCESS);
+                stage = metrics.recordStage(LOGIN, PASSWORD_HASH, Outcome.SUCCESS, stage);
+            }
+
+            // Generar nuevo token JWT
+            event = UserStageEvent.begin(LOGIN, JWT_SIGN);
+            String newToken = jwtService.generateToken(user.getId(), user.getEmail());
+            event.finish(Outcome.SUCCESS);
+            stage = metrics.recordStage(LOGIN, JWT_SIGN, Outcome.SUCCESS, stage);
+            user.setToken(newToken);
+            user.setLastLogin(LocalDateTime.now());
+
+            // Flush explícito para que la etapa mida el UPDATE y no quede en el commit
+            event = UserStageEvent.begin(LOGIN, PERSIST);
+            User updatedUser = userRepository.saveAndFlush(user);
+            event.finish(Outcome.SUCCESS);
+            stage = metrics.recordStage(LOGIN, PERSIST, Outcome.SUCCESS, stage);
+
+            UserRegistrationResponseDTO response = userMapper.toResponse(updatedUser);
+            userResponseCache.refreshAfterCommit(response);
+            metrics.recordStage(LOGIN, RESPONSE_MAPPING, Outcome.SUCCESS, stage);
+            outcome = Outcome.SUCCESS;
+            return response;
+        } finally {
+            metrics.recordOperation(LOGIN, outcome, start);
         }
-        
-        // Generar nuevo token JWT
-        String newToken = jwtService.generateToken(user.getId(), user.getEmail());
-        user.setToken(newToken);
-        user.setLastLogin(LocalDateTime.now());
-        
-        User updatedUser = userRepository.save(user);
-        return userMapper.toResponse(updatedUser);
     }
-    
 
+    @Override
+    @Transactional(readOnly = true)
+    public UserPageDTO listUsers(Boolean isActive, OffsetDateTime createdFrom, OffsetDateTime createdTo,
+                                 String cursor, int limit) {
+        UserPageCursor after = cursor == null || cursor.isBlank() ? null : UserPageCursor.decode(cursor);
+
+        // Keyset sobre (created, id): cada página parte de la última fila vista, sin OFFSET
+        Specification<User> specification = Specification.allOf(
+                UserSpecifications.isActive(isActive),
+                UserSpecifications.createdFrom(toUtc(createdFrom)),
+                UserSpecifications.createdBefore(toUtc(createdTo)),
+                after == null ? null : UserSpecifications.after(after.created(), after.id()));
+
+        // Se pide una fila extra solo para saber si hay página siguiente
+        List<User> users = userRepository.findBy(specification, query -> query
+                .sortBy(Sort.by("created", "id"))
+                .limit(limit + 1)
+                .all());
+
+        UserPageDTO page = new UserPageDTO();
+        if (users.size() > limit) {
+            users = users.subList(0, limit);
+            User last = users.get(limit - 1);
+            page.setNextCursor(new UserPageCursor(last.getCreated(), last.getId()).encode());
+        }
+        page.setItems(userMapper.toSummaryList(users));
+        return page;
+    }
+
+    // Las fechas de la API se exponen en UTC (ver UserMapper)
+    private static LocalDateTime toUtc(OffsetDateTime dateTime) {
+        return dateTime == null ? null : dateTime.withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime();
+    }
 } 
\ No newline at end of file
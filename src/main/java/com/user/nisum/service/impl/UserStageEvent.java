@@ -0,0 +1,54 @@
+package com.user.nisum.service.impl;
+
+import com.user.nisum.service.impl.UserOperationMetrics.Operation;
+import com.user.nisum.service.impl.UserOperationMetrics.Outcome;
+import com.user.nisum.service.impl.UserOperationMetrics.Stage;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de una etapa costosa de las operaciones de usuario (hash y verificación
+ * de contraseña, firma del JWT, persistencia).
+ *
+ * Complementa a los timers de {@link UserOperationMetrics}: en una grabación queda
+ * junto a los eventos de asignación, locks y GC del mismo hilo. Sin grabación activa
+ * {@code begin}/{@code end} no hacen nada y el objeto no escapa del método.
+ */
+@Name(UserStageEvent.NAME)
+@Label("User Operation Stage")
+@Category({"Nisum", "Usuarios"})
+@Description("Duración y resultado de una etapa de registro, login o último login")
+@StackTrace(false)
+public final class UserStageEvent extends Event {
+
+    public static final String NAME = "com.user.nisum.UserOperationStage";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Outcome")
+    String outcome;
+
+    static UserStageEvent begin(Operation operation, Stage stage) {
+        UserStageEvent event = new UserStageEvent();
+        event.operation = operation.tag;
+        event.stage = stage.tag;
+        event.begin();
+        return event;
+    }
+
+    void finish(Outcome outcome) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = outcome.tag;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.user.nisum.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.user.nisum.service.VerifiedToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Caché acotada de tokens JWT ya verificados, indexada por el token crudo.
+ *
+ * Cada entrada expira exactamente cuando vence el claim {@code exp} del token,
+ * de modo que un token se verifica (parseo + HMAC) una sola vez y las
+ * peticiones siguientes solo hacen una búsqueda en memoria.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(@Value("${jwt.claims-cache.max-size:10000}") long maxSize,
+                              MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExpireAtTokenExpiration())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.claims");
+    }
+
+    public VerifiedToken get(String token) {
+        return cache.getIfPresent(token);
+    }
+
+    public void put(String token, VerifiedToken verifiedToken) {
+        cache.put(token, verifiedToken);
+    }
+
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+
+    private static final class ExpireAtTokenExpiration implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String token, VerifiedToken verifiedToken, long currentTime) {
+            long nanos = Duration.between(Instant.now(), verifiedToken.expiration()).toNanos();
+            return Math.max(nanos, 0);
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, VerifiedToken verifiedToken, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, verifiedToken, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, VerifiedToken verifiedToken, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.user.nisum.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalibratedBCryptPasswordEncoderTest {
+
+    @Test
+    void calibrateStrength_StaysWithinBounds() {
+        // Act
+        int strength = CalibratedBCryptPasswordEncoder.calibrateStrength(Duration.ofMillis(50), 4, 6);
+
+        // Assert
+        assertTrue(strength >= 4 && strength <= 6);
+    }
+
+    @Test
+    void calibrateStrength_UnreachableTarget_FallsBackToMinimum() {
+        // Act
+        int strength = CalibratedBCryptPasswordEncoder.calibrateStrength(Duration.ZERO, 5, 8);
+
+        // Assert
+        assertEquals(5, strength);
+    }
+
+    @Test
+    void upgradeEncoding_LowerCost_RequiresRehash() {
+        // Arrange
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+        // Act & Assert
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("SecurePass1@")));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("SecurePass1@")));
+    }
+
+    @Test
+    void upgradeEncoding_HigherCost_IsKept() {
+        // Arrange - hash creado por una réplica que calibró un costo mayor
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+        // Act & Assert
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("SecurePass1@")));
+    }
+
+    @Test
+    void delegatingEncoder_LegacyHashWithoutPrefix_MatchesAndRequiresRehash() {
+        // Arrange
+        CalibratedBCryptPasswordEncoder bcrypt = new CalibratedBCryptPasswordEncoder(4);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        String legacyHash = new BCryptPasswordEncoder(4).encode("SecurePass1@");
+
+        // Act
+        String newHash = encoder.encode("SecurePass1@");
+
+        // Assert
+        assertTrue(encoder.matches("SecurePass1@", legacyHash));
+        assertTrue(encoder.upgradeEncoding(legacyHash));
+        assertTrue(newHash.startsWith("{bcrypt}$2a$04$"));
+        assertFalse(encoder.upgradeEncoding(newHash));
+    }
+}
@@ -0,0 +1,103 @@
+package com.user.nisum.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountingAsyncAppenderTest {
+
+    private static final int QUEUE_SIZE = 10;
+
+    private LoggerContext context;
+    private StalledAppender stalled;
+    private CountingAsyncAppender async;
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        stalled = new StalledAppender();
+        stalled.setContext(context);
+        stalled.start();
+
+        async = new CountingAsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(QUEUE_SIZE);
+        async.setDiscardingThreshold(2);
+        async.setNeverBlock(true);
+        async.addAppender(stalled);
+        async.start();
+
+        logger = context.getLogger("test");
+        logger.setAdditive(false);
+        logger.addAppender(async);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stalled.release.countDown();
+        context.stop();
+    }
+
+    @Test
+    void append_StalledConsole_DropsAndCountsWithoutBlocking() throws InterruptedException {
+        // Arrange - el worker queda trabado escribiendo el primer evento, con la cola vacía
+        logger.error("primero");
+        assertTrue(stalled.writing.await(5, TimeUnit.SECONDS));
+        long discardedBefore = CountingAsyncAppender.discardedCount();
+        long queueFullBefore = CountingAsyncAppender.queueFullCount();
+
+        // Act - la consola no avanza: una tormenta de errores no puede frenar al hilo que loguea
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < 30; i++) {
+                logger.error("error {}", i);
+            }
+            for (int i = 0; i < 5; i++) {
+                logger.info("info {}", i);
+            }
+        });
+
+        // Assert - los que no entraron en la cola quedan contados
+        assertEquals(0, CountingAsyncAppender.remainingCapacity());
+        assertEquals(30 - QUEUE_SIZE, CountingAsyncAppender.queueFullCount() - queueFullBefore);
+        assertEquals(5, CountingAsyncAppender.discardedCount() - discardedBefore);
+
+        stalled.release.countDown();
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            while (stalled.written.get() < 1 + QUEUE_SIZE) {
+                Thread.sleep(10);
+            }
+        });
+    }
+
+    private static final class StalledAppender extends AppenderBase<ILoggingEvent> {
+
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger written = new AtomicInteger();
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            writing.countDown();
+            try {
+                release.await();
+                written.incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
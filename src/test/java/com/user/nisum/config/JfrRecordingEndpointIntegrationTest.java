@@ -0,0 +1,171 @@
+package com.user.nisum.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.user.nisum.dtos.PhoneDTODTO;
+import com.user.nisum.dtos.UserRegistrationRequestDTO;
+import com.user.nisum.dtos.UserRegistrationResponseDTO;
+import com.user.nisum.service.UserService;
+import com.user.nisum.service.impl.UserStageEvent;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "password.bcrypt.strength=4",
+        "diagnostics.jfr.settings=default"
+})
+class JfrRecordingEndpointIntegrationTest {
+
+    @TempDir
+    static Path jfrDirectory;
+
+    @DynamicPropertySource
+    static void jfrProperties(DynamicPropertyRegistry registry) {
+        registry.add("diagnostics.jfr.directory", jfrDirectory::toString);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JfrRecordingEndpoint endpoint;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void tearDown() {
+        endpoint.close();
+    }
+
+    @Test
+    void startAndStop_DumpsApplicationEventsToFile() throws Exception {
+        // Arrange
+        mockMvc.perform(action("/actuator/jfr/start"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RUNNING"));
+        UserRegistrationResponseDTO registered = userService.registerUser(request("jfr." + System.nanoTime() + "@fetch.cl"));
+        mockMvc.perform(get("/api/usuarios/verificar-token").header("Authorization", "Bearer " + registered.getToken()))
+                .andExpect(status().isOk());
+
+        // Act
+        String body = mockMvc.perform(action("/actuator/jfr/stop"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("CLOSED"))
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        JsonNode result = objectMapper.readTree(body);
+        Path file = Path.of(result.get("file").asText());
+        assertEquals(jfrDirectory, file.getParent());
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals(UserStageEvent.NAME)
+                && "registration".equals(event.getString("operation"))
+                && "password_hash".equals(event.getString("stage"))
+                && "success".equals(event.getString("outcome"))));
+        assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals(JwtVerificationEvent.NAME)
+                && "valid".equals(event.getString("outcome"))));
+    }
+
+    @Test
+    void dump_KeepsRecordingRunning() throws Exception {
+        // Arrange
+        mockMvc.perform(action("/actuator/jfr/start")).andExpect(status().isOk());
+
+        // Act & Assert
+        mockMvc.perform(action("/actuator/jfr/start")).andExpect(status().isConflict());
+        String body = mockMvc.perform(action("/actuator/jfr/dump"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RUNNING"))
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(Files.size(Path.of(objectMapper.readTree(body).get("file").asText())) > 0);
+    }
+
+    @Test
+    void stop_DumpFails_ClosesRecordingAnyway() throws Exception {
+        // Arrange - el directorio de volcado pasa a ser un archivo común
+        mockMvc.perform(action("/actuator/jfr/start")).andExpect(status().isOk());
+        Path moved = Files.move(jfrDirectory, jfrDirectory.resolveSibling(jfrDirectory.getFileName() + "-movido"));
+        Files.createFile(jfrDirectory);
+
+        try {
+            // Act
+            mockMvc.perform(action("/actuator/jfr/stop")).andExpect(status().isInternalServerError());
+
+            // Assert - la grabación quedó cerrada y se puede iniciar otra
+            mockMvc.perform(get("/actuator/jfr"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.state").value("CLOSED"));
+            mockMvc.perform(action("/actuator/jfr/start"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.state").value("RUNNING"));
+        } finally {
+            Files.delete(jfrDirectory);
+            Files.move(moved, jfrDirectory);
+        }
+    }
+
+    @Test
+    void stop_WithoutRecording_ReturnsConflict() throws Exception {
+        mockMvc.perform(action("/actuator/jfr/stop")).andExpect(status().isConflict());
+        mockMvc.perform(action("/actuator/jfr/pause")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void start_FromRemoteAddress_IsDenied() throws Exception {
+        mockMvc.perform(action("/actuator/jfr/start").with(request -> {
+                    request.setRemoteAddr("10.1.2.3");
+                    return request;
+                }))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/jfr"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("CLOSED"));
+    }
+
+    // Las operaciones de escritura de Actuator reciben sus parámetros como JSON
+    private static MockHttpServletRequestBuilder action(String path) {
+        return post(path).contentType(MediaType.APPLICATION_JSON).content("{}");
+    }
+
+    private static UserRegistrationRequestDTO request(String email) {
+        PhoneDTODTO phone = new PhoneDTODTO();
+        phone.setNumber("1234567");
+        phone.setCitycode("1");
+        phone.setContrycode("57");
+
+        UserRegistrationRequestDTO request = new UserRegistrationRequestDTO();
+        request.setName("Usuario JFR");
+        request.setEmail(email);
+        request.setPassword("SecurePass1@");
+        request.setPhones(List.of(phone));
+        return request;
+    }
+}
@@ -0,0 +1,141 @@
+package com.user.nisum.config;
+
+import com.user.nisum.exception.StackTraceRateLimiter;
+import com.user.nisum.service.JwtService;
+import com.user.nisum.service.VerifiedToken;
+import com.user.nisum.service.impl.DeactivatedUserRegistry;
+import com.user.nisum.service.impl.TokenRevocationList;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private DeactivatedUserRegistry deactivatedUserRegistry;
+
+    @Mock
+    private TokenRevocationList tokenRevocationList;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private StackTraceRateLimiter stackTraceRateLimiter;
+
+    @InjectMocks
+    private JwtAuthenticationFilter filter;
+
+    private UUID userId;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        request = new MockHttpServletRequest("GET", "/api/usuarios/verificar-token");
+        request.setRequestURI("/api/usuarios/verificar-token");
+        request.addHeader("Authorization", "Bearer jwt.token.here");
+
+        VerifiedToken verifiedToken = new VerifiedToken(userId.toString(), "jose.valdez@empresa.com", "jti-1",
+                Instant.now().plusSeconds(60));
+        when(jwtService.verifyToken("jwt.token.here")).thenReturn(Optional.of(verifiedToken));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void statelessMode_BuildsPrincipalFromClaimsWithoutUserLookup() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(filter, "principalMode", JwtPrincipalMode.STATELESS);
+        when(deactivatedUserRegistry.isDeactivated(userId)).thenReturn(false);
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals(new JwtPrincipal(userId, "jose.valdez@empresa.com"), authentication.getPrincipal());
+        verify(userDetailsService, never()).loadUserByUsername(any());
+    }
+
+    @Test
+    void statelessMode_DeactivatedUser_IsNotAuthenticated() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(filter, "principalMode", JwtPrincipalMode.STATELESS);
+        when(deactivatedUserRegistry.isDeactivated(userId)).thenReturn(true);
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(userDetailsService, never()).loadUserByUsername(any());
+    }
+
+    @Test
+    void revokedToken_IsNotAuthenticated() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(filter, "principalMode", JwtPrincipalMode.STATELESS);
+        when(tokenRevocationList.isRevoked("jti-1")).thenReturn(true);
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(deactivatedUserRegistry, never()).isDeactivated(any());
+        verify(userDetailsService, never()).loadUserByUsername(any());
+        assertEquals(1, meterRegistry.get("jwt.verification").tag("outcome", "revoked").timer().count());
+    }
+
+    @Test
+    void databaseMode_LoadsUserDetails() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(filter, "principalMode", JwtPrincipalMode.DATABASE);
+        when(userDetailsService.loadUserByUsername("jose.valdez@empresa.com"))
+                .thenReturn(new User("jose.valdez@empresa.com", "encodedPassword", List.of()));
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(userDetailsService).loadUserByUsername("jose.valdez@empresa.com");
+        verify(deactivatedUserRegistry, never()).isDeactivated(any());
+    }
+}
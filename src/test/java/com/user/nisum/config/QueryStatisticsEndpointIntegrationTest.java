@@ -0,0 +1,58 @@
+package com.user.nisum.config;
+
+import com.user.nisum.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "password.bcrypt.strength=4")
+class QueryStatisticsEndpointIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void summary_ListsExecutedQueriesAndResetClearsThem() throws Exception {
+        // Arrange
+        mockMvc.perform(delete("/actuator/querystats")).andExpect(status().isOk());
+        userService.listUsers(null, null, null, null, 10);
+
+        // Act & Assert
+        mockMvc.perform(get("/actuator/querystats").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enabled").value(true))
+                .andExpect(jsonPath("$.queryExecutions").value(greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.queries[0].query").value(containsString("from users")))
+                .andExpect(jsonPath("$.queries[0].executions").value(1))
+                .andExpect(jsonPath("$.entities.User").exists());
+
+        mockMvc.perform(delete("/actuator/querystats")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/querystats"))
+                .andExpect(jsonPath("$.queryExecutions").value(0))
+                .andExpect(jsonPath("$.queries").isEmpty());
+    }
+
+    @Test
+    void summary_FromRemoteAddress_IsDenied() throws Exception {
+        mockMvc.perform(get("/actuator/querystats").with(request -> {
+                    request.setRemoteAddr("10.1.2.3");
+                    return request;
+                }))
+                .andExpect(status().isForbidden());
+    }
+}
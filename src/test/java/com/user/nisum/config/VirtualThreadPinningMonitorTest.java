@@ -0,0 +1,59 @@
+package com.user.nisum.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadPinningMonitorTest {
+
+    @Test
+    void classify_UsesTopmostKnownLayer() {
+        // Act & Assert
+        assertEquals("jdbc", VirtualThreadPinningMonitor.classify(List.of(
+                "java.lang.Object", "org.h2.engine.SessionLocal", "org.hibernate.engine.jdbc.internal.ResultSetReturnImpl")));
+        assertEquals("hibernate", VirtualThreadPinningMonitor.classify(List.of(
+                "java.lang.Thread", "org.hibernate.internal.SessionImpl", "com.user.nisum.service.impl.UserServiceImpl")));
+        assertEquals("application", VirtualThreadPinningMonitor.classify(List.of(
+                "java.lang.Thread", "com.user.nisum.service.impl.LastLoginWriteBehindBuffer")));
+        assertEquals("other", VirtualThreadPinningMonitor.classify(List.of("java.lang.Thread")));
+    }
+
+    @Test
+    void synchronizedSleepOnVirtualThread_IsReportedAsPinned() throws Exception {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(true, 10, meterRegistry);
+        monitor.start();
+        Object lock = new Object();
+
+        try {
+            // Act: bloquearse dentro de synchronized fija el hilo virtual a su carrier
+            Thread.ofVirtual().start(() -> {
+                synchronized (lock) {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }).join();
+
+            // Assert: JFR entrega los eventos en lotes, aproximadamente una vez por segundo
+            long deadline = System.currentTimeMillis() + 10_000;
+            Counter pinned = null;
+            while (pinned == null && System.currentTimeMillis() < deadline) {
+                pinned = meterRegistry.find("jvm.threads.virtual.pinned").tag("source", "application").counter();
+                Thread.sleep(100);
+            }
+            assertNotNull(pinned, "Evento de pinning no reportado");
+            assertEquals(1, pinned.count());
+        } finally {
+            monitor.stop();
+        }
+        assertFalse(monitor.isRunning());
+    }
+}
@@ -0,0 +1,58 @@
+package com.user.nisum.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tomcat real detrás de un "proxy" en loopback: la IP del límite de login sale de
+ * X-Forwarded-For (server.forward-headers-strategy=native), no de la conexión.
+ */
+@AutoConfigureTestDatabase
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "password.bcrypt.strength=4",
+        "login.throttle.email.capacity=100",
+        "login.throttle.ip.capacity=2",
+        "login.throttle.ip.refill-per-minute=1"
+})
+class UserControllerForwardedHeadersIntegrationTest {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void login_BehindProxy_ThrottlesByForwardedClientAddress() throws Exception {
+        // Arrange - el cliente 203.0.113.7 agota su bucket de IP
+        for (int i = 0; i < 2; i++) {
+            assertNotEquals(TOO_MANY_REQUESTS, login("203.0.113.7", i));
+        }
+
+        // Act & Assert - sigue limitado, pero otro cliente detrás del mismo proxy no
+        assertEquals(TOO_MANY_REQUESTS, login("203.0.113.7", 2));
+        assertNotEquals(TOO_MANY_REQUESTS, login("203.0.113.8", 3));
+        assertNotEquals(TOO_MANY_REQUESTS, login("203.0.113.9", 4));
+    }
+
+    private int login(String forwardedFor, int attempt) throws IOException, InterruptedException {
+        String body = "{\"email\":\"proxy" + attempt + "@empresa.com\",\"password\":\"SecurePass1@\"}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/usuarios/login"))
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", forwardedFor)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -1,12 +1,31 @@
 package com.user.nisum.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.user.nisum.dtos.BatchRegistrationRequestDTO;
+import com.user.nisum.dtos.BatchRegistrationResponseDTO;
+import com.user.nisum.dtos.BatchRegistrationResultDTO;
 import com.user.nisum.dtos.PhoneDTODTO;
 import com.user.nisum.dtos.UserRegistrationRequestDTO;
+import com.user.nisum.dtos.UserPageDTO;
 import com.user.nisum.dtos.UserRegistrationResponseDTO;
+import com.user.nisum.dtos.UserSummaryDTO;
 import com.user.nisum.exception.BusinessRuleException;
+import com.user.nisum.exception.InvalidRefreshTokenException;
+import com.user.nisum.exception.InvalidRequestException;
+import com.user.nisum.exception.ServiceUnavailableException;
+import com.user.nisum.exception.StackTraceRateLimiter;
+import com.user.nisum.exception.TooManyRequestsException;
+import com.user.nisum.service.RefreshTokenService;
+import com.user.nisum.service.TokenPair;
+import com.user.nisum.service.VerifiedToken;
+import com.user.nisum.service.UserBatchService;
+import com.user.nisum.service.UserExportService;
 import com.user.nisum.service.UserService;
 import com.user.nisum.service.JwtService;
+import com.user.nisum.service.impl.DeactivatedUserRegistry;
+import com.user.nisum.service.impl.LoginThrottle;
+import com.user.nisum.service.impl.TokenRevocationList;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,13 +37,22 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -39,9 +67,33 @@ class UserControllerIntegrationTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private UserBatchService userBatchService;
+
+    @MockBean
+    private UserExportService userExportService;
+
     @MockBean
     private JwtService jwtService;
 
+    @MockBean
+    private DeactivatedUserRegistry deactivatedUserRegistry;
+
+    @MockBean
+    private LoginThrottle loginThrottle;
+
+    @MockBean
+    private RefreshTokenService refreshTokenService;
+
+    @MockBean
+    private TokenRevocationList tokenRevocationList;
+
+    @MockBean
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private StackTraceRateLimiter stackTraceRateLimiter;
+
     private MockMvc mockMvc;
     private ObjectMapper objectMapper;
 
@@ -301,6 +353,18 @@ class UserControllerIntegrationTest {
                 .andExpect(jsonPath("$.token").value("jwt.token.here"));
     }
 
+    @Test
+    void consultarDisponibilidadEmail_ReturnsAvailability() throws Exception {
+        // Arrange
+        when(userService.isEmailAvailable("jose.valdez@example.com")).thenReturn(false);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/usuarios/email/jose.valdez@example.com/disponibilidad"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("jose.valdez@example.com"))
+                .andExpect(jsonPath("$.disponible").value(false));
+    }
+
     @Test
     void updateLastLogin_Success() throws Exception {
         // Arrange
@@ -338,6 +402,249 @@ class UserControllerIntegrationTest {
 
 
 
+    @Test
+    void registerUsersBatch_ReturnsPerItemResults() throws Exception {
+        // Arrange - lote con un correo ya registrado
+        PhoneDTODTO phone = new PhoneDTODTO();
+        phone.setNumber("1234567");
+        phone.setCitycode("1");
+        phone.setContrycode("57");
+
+        UserRegistrationRequestDTO first = new UserRegistrationRequestDTO();
+        first.setName("José Francisco Valdez");
+        first.setEmail("jose.valdez@empresa.com");
+        first.setPassword("SecurePass1@");
+        first.setPhones(List.of(phone));
+
+        UserRegistrationRequestDTO second = new UserRegistrationRequestDTO();
+        second.setName("María García");
+        second.setEmail("maria.garcia@dominio.cl");
+        second.setPassword("SecurePass1@");
+        second.setPhones(List.of(phone));
+
+        UserRegistrationResponseDTO created = new UserRegistrationResponseDTO();
+        created.setId(UUID.randomUUID());
+        created.setName("José Francisco Valdez");
+        created.setEmail("jose.valdez@empresa.com");
+        created.setToken("jwt.token.here");
+
+        BatchRegistrationResponseDTO response = new BatchRegistrationResponseDTO()
+                .total(2)
+                .created(1)
+                .failed(1)
+                .results(List.of(
+                        new BatchRegistrationResultDTO().index(0)
+                                .status(BatchRegistrationResultDTO.StatusEnum.CREATED)
+                                .usuario(created),
+                        new BatchRegistrationResultDTO().index(1)
+                                .status(BatchRegistrationResultDTO.StatusEnum.DUPLICATE_EMAIL)
+                                .mensaje("El correo ya registrado")));
+
+        when(userBatchService.registerUsers(any())).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/usuarios/registro/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchRegistrationRequestDTO(List.of(first, second)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[0].usuario.email").value("jose.valdez@empresa.com"))
+                .andExpect(jsonPath("$.results[1].status").value("DUPLICATE_EMAIL"))
+                .andExpect(jsonPath("$.results[1].mensaje").value("El correo ya registrado"));
+    }
+
+    @Test
+    void registerUsersBatch_InvalidItem_ReturnsBadRequest() throws Exception {
+        // Arrange - un usuario del lote con email inválido
+        PhoneDTODTO phone = new PhoneDTODTO();
+        phone.setNumber("1234567");
+        phone.setCitycode("1");
+        phone.setContrycode("57");
+
+        UserRegistrationRequestDTO invalid = new UserRegistrationRequestDTO();
+        invalid.setName("Chavela Primera");
+        invalid.setEmail("invalid-email");
+        invalid.setPassword("SecurePass1@");
+        invalid.setPhones(List.of(phone));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/usuarios/registro/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchRegistrationRequestDTO(List.of(invalid)))))
+                .andExpect(status().isBadRequest());
+        verify(userBatchService, never()).registerUsers(any());
+    }
+
+    @Test
+    void listarUsuarios_ReturnsPageWithNextCursor() throws Exception {
+        // Arrange
+        UserSummaryDTO summary = new UserSummaryDTO();
+        summary.setId(UUID.randomUUID());
+        summary.setName("José Francisco Valdez");
+        summary.setEmail("jose.valdez@empresa.com");
+        summary.setIsactive(true);
+
+        UserPageDTO page = new UserPageDTO();
+        page.setItems(List.of(summary));
+        page.setNextCursor("siguiente");
+
+        when(userService.listUsers(eq(true), any(), any(), eq("actual"), eq(1))).thenReturn(page);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/usuarios")
+                        .param("isActive", "true")
+                        .param("createdFrom", "2024-05-01T00:00:00Z")
+                        .param("cursor", "actual")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].email").value("jose.valdez@empresa.com"))
+                .andExpect(jsonPath("$.items[0].token").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value("siguiente"));
+    }
+
+    @Test
+    void listarUsuarios_LimitTooLarge_ReturnsBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/usuarios").param("limit", "500"))
+                .andExpect(status().isBadRequest());
+        verify(userService, never()).listUsers(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void listarUsuarios_InvalidCursor_ReturnsBadRequest() throws Exception {
+        // Arrange
+        when(userService.listUsers(any(), any(), any(), eq("roto"), eq(20)))
+                .thenThrow(new InvalidRequestException("Cursor de paginación inválido"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/usuarios").param("cursor", "roto"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.mensaje").value("Cursor de paginación inválido"));
+    }
+
+    @Test
+    void exportarUsuarios_StreamsNdjson() throws Exception {
+        // Arrange - el servicio escribe directamente en el stream de la respuesta
+        doAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(0);
+            output.write("{\"email\":\"jose.valdez@empresa.com\",\"phones\":[]}\n".getBytes(StandardCharsets.UTF_8));
+            output.write("{\"email\":\"maria.garcia@dominio.cl\",\"phones\":[]}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        }).when(userExportService).exportUsers(any(OutputStream.class));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/usuarios/exportacion"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(content().string(
+                        "{\"email\":\"jose.valdez@empresa.com\",\"phones\":[]}\n"
+                                + "{\"email\":\"maria.garcia@dominio.cl\",\"phones\":[]}\n"));
+    }
+
+    @Test
+    void login_HashingSaturated_ReturnsServiceUnavailableWithRetryAfter() throws Exception {
+        // Arrange
+        when(userService.login("jose.valdez@example.com", "SecurePass1@"))
+                .thenThrow(new ServiceUnavailableException("Servicio temporalmente saturado, intente nuevamente", 1));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/usuarios/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"jose.valdez@example.com\",\"password\":\"SecurePass1@\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.mensaje").value("Servicio temporalmente saturado, intente nuevamente"));
+    }
+
+    @Test
+    void login_Throttled_ReturnsTooManyRequestsWithoutCallingService() throws Exception {
+        // Arrange
+        doThrow(new TooManyRequestsException("Demasiados intentos de login, intente más tarde", 12))
+                .when(loginThrottle).acquire(eq("jose.valdez@example.com"), any());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/usuarios/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"jose.valdez@example.com\",\"password\":\"SecurePass1@\"}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "12"))
+                .andExpect(jsonPath("$.mensaje").value("Demasiados intentos de login, intente más tarde"));
+        verify(userService, never()).login(any(), any());
+    }
+
+    @Test
+    void login_Success_ReturnsAccessAndRefreshTokens() throws Exception {
+        // Arrange
+        UserRegistrationResponseDTO user = new UserRegistrationResponseDTO();
+        user.setId(UUID.randomUUID());
+        user.setEmail("jose.valdez@example.com");
+        user.setToken("jwt.token.here");
+        when(userService.login("jose.valdez@example.com", "SecurePass1@")).thenReturn(user);
+        when(refreshTokenService.issue(user.getId())).thenReturn("refresh.token.here");
+
+        // Act & Assert
+        mockMvc.perform(post("/api/usuarios/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"jose.valdez@example.com\",\"password\":\"SecurePass1@\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("jwt.token.here"))
+                .andExpect(jsonPath("$.refreshToken").value("refresh.token.here"));
+    }
+
+    @Test
+    void renovarToken_Success_ReturnsRotatedTokens() throws Exception {
+        // Arrange
+        when(refreshTokenService.refresh("refresh.token.here"))
+                .thenReturn(new TokenPair("new.jwt.token", "new.refresh.token"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/usuarios/token/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"refresh.token.here\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("new.jwt.token"))
+                .andExpect(jsonPath("$.refreshToken").value("new.refresh.token"));
+        verify(userService, never()).login(any(), any());
+    }
+
+    @Test
+    void renovarToken_InvalidToken_ReturnsUnauthorized() throws Exception {
+        // Arrange
+        when(refreshTokenService.refresh("reused.token")).thenThrow(new InvalidRefreshTokenException());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/usuarios/token/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"reused.token\"}"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.mensaje").value("Refresh token inválido o expirado"));
+    }
+
+    @Test
+    void revocarToken_RevokesBearerToken() throws Exception {
+        // Arrange
+        VerifiedToken verifiedToken = new VerifiedToken(UUID.randomUUID().toString(), "jose.valdez@empresa.com",
+                "jti-1", Instant.now().plusSeconds(60));
+        when(jwtService.verifyToken("jwt.token.here")).thenReturn(Optional.of(verifiedToken));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/usuarios/token/revocacion")
+                        .header("Authorization", "Bearer jwt.token.here"))
+                .andExpect(status().isNoContent());
+        verify(tokenRevocationList).revoke(verifiedToken);
+    }
+
+    @Test
+    void revocarToken_WithoutBearerToken_ReturnsUnauthorized() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/usuarios/token/revocacion"))
+                .andExpect(status().isUnauthorized());
+        verify(tokenRevocationList, never()).revoke(any());
+    }
+
     @Test
     @WithMockUser
     void verificarToken_Success() throws Exception {
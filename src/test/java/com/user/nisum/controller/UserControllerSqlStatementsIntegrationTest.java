@@ -0,0 +1,207 @@
+package com.user.nisum.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.user.nisum.dtos.BatchRegistrationRequestDTO;
+import com.user.nisum.dtos.PhoneDTODTO;
+import com.user.nisum.dtos.UserRegistrationRequestDTO;
+import com.user.nisum.service.impl.UserResponseCache;
+import com.user.nisum.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.user.nisum.support.SqlStatementCounter.expectStatements;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sentencias SQL exactas de cada endpoint de {@link UserController} con la aplicación
+ * completa. Si un cambio agrega una consulta (un N+1, una relación lazy que se inicializa
+ * al mapear) el conteo deja de coincidir y el mensaje lista las consultas ejecutadas.
+ */
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "password.bcrypt.strength=4",
+        SqlStatementCounter.PROPERTY
+})
+class UserControllerSqlStatementsIntegrationTest {
+
+    private static final String PASSWORD = "SecurePass1@";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserResponseCache userResponseCache;
+
+    private JsonNode registered;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        registered = register(uniqueEmail());
+    }
+
+    @Test
+    void registrarUsuario() throws Throwable {
+        // INSERT del usuario y de sus teléfonos en un batch; el filtro de correos evita el SELECT de duplicado
+        expectStatements(2, "POST /api/usuarios/registro", () -> register(uniqueEmail()));
+    }
+
+    @Test
+    void registrarUsuariosLote() throws Throwable {
+        BatchRegistrationRequestDTO batch = new BatchRegistrationRequestDTO(List.of(
+                request(uniqueEmail()), request(uniqueEmail()), request(uniqueEmail())));
+
+        // Usuario autenticado y tres registros en un batch de INSERT por tabla, no uno por usuario
+        expectStatements(3, "POST /api/usuarios/registro/lote", () -> perform(authenticated(post("/api/usuarios/registro/lote"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void obtenerUsuarioPorEmail() throws Throwable {
+        String email = registered.get("email").asText();
+        userResponseCache.invalidate(email);
+
+        // Usuario y teléfonos en una consulta con entity graph; la segunda lectura sale de la caché
+        expectStatements(1, "GET /api/usuarios/email/{email}", () -> perform(get("/api/usuarios/email/" + email))
+                .andExpect(status().isOk()));
+        expectStatements(0, "GET /api/usuarios/email/{email} (caché)", () -> perform(get("/api/usuarios/email/" + email))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void consultarDisponibilidadEmail() throws Throwable {
+        expectStatements(1, "GET /api/usuarios/email/{email}/disponibilidad (registrado)", () ->
+                perform(get("/api/usuarios/email/" + registered.get("email").asText() + "/disponibilidad"))
+                        .andExpect(status().isOk()));
+        expectStatements(0, "GET /api/usuarios/email/{email}/disponibilidad (nuevo)", () ->
+                perform(get("/api/usuarios/email/" + uniqueEmail() + "/disponibilidad"))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    void actualizarUltimoLogin() throws Throwable {
+        // Usuario con teléfonos en un SELECT y el UPDATE de last_login
+        expectStatements(2, "PATCH /api/usuarios/{id}/login", () ->
+                perform(patch("/api/usuarios/" + registered.get("id").asText() + "/login"))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    void login() throws Throwable {
+        Map<String, String> credentials = Map.of("email", registered.get("email").asText(), "password", PASSWORD);
+
+        // SELECT del usuario con teléfonos, UPDATE del token y INSERT del refresh token
+        expectStatements(3, "POST /api/usuarios/login", () -> perform(post("/api/usuarios/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(credentials)))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void renovarToken() throws Throwable {
+        Map<String, String> credentials = Map.of("email", registered.get("email").asText(), "password", PASSWORD);
+        JsonNode login = objectMapper.readTree(perform(post("/api/usuarios/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(credentials)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        Map<String, String> refresh = Map.of("refreshToken", login.get("refreshToken").asText());
+
+        // SELECT por hash, UPDATE que marca el token usado e INSERT del nuevo, sin contraseña
+        expectStatements(3, "POST /api/usuarios/token/refresh", () -> perform(post("/api/usuarios/token/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(refresh)))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void revocarToken() throws Throwable {
+        // Usuario autenticado e INSERT de la revocación, sin SELECT previo por el jti asignado
+        expectStatements(2, "POST /api/usuarios/token/revocacion", () ->
+                perform(authenticated(post("/api/usuarios/token/revocacion")))
+                        .andExpect(status().isNoContent()));
+    }
+
+    @Test
+    void verificarToken() throws Throwable {
+        // Con jwt.principal-mode=DATABASE el filtro carga al usuario
+        expectStatements(1, "GET /api/usuarios/verificar-token", () ->
+                perform(authenticated(get("/api/usuarios/verificar-token")))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    void listarUsuarios() throws Throwable {
+        register(uniqueEmail());
+        register(uniqueEmail());
+
+        // Usuario autenticado, la página y los teléfonos de toda la página en una consulta, no uno por usuario
+        expectStatements(3, "GET /api/usuarios", () -> perform(authenticated(get("/api/usuarios?limit=10")))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void exportarUsuarios() throws Throwable {
+        register(uniqueEmail());
+
+        // Usuario autenticado y un único SELECT en streaming con los teléfonos
+        expectStatements(2, "GET /api/usuarios/exportacion", () ->
+                perform(authenticated(get("/api/usuarios/exportacion")))
+                        .andExpect(status().isOk()));
+    }
+
+    private ResultActions perform(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request);
+    }
+
+    private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+        return request.header("Authorization", "Bearer " + registered.get("token").asText());
+    }
+
+    private JsonNode register(String email) throws Exception {
+        String body = perform(post("/api/usuarios/registro")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request(email))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static String uniqueEmail() {
+        return "sql." + System.nanoTime() + "@fetch.cl";
+    }
+
+    private static UserRegistrationRequestDTO request(String email) {
+        PhoneDTODTO phone = new PhoneDTODTO();
+        phone.setNumber("1234567");
+        phone.setCitycode("1");
+        phone.setContrycode("57");
+
+        UserRegistrationRequestDTO request = new UserRegistrationRequestDTO();
+        request.setName("Usuario SQL");
+        request.setEmail(email);
+        request.setPassword(PASSWORD);
+        request.setPhones(List.of(phone));
+        return request;
+    }
+}
@@ -0,0 +1,43 @@
+package com.user.nisum.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @Test
+    void randomUuid_HasVersion7AndRfcVariant() {
+        // Act
+        UUID uuid = UuidV7.randomUuid();
+
+        // Assert
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void fromEpochMillis_EncodesTimestamp() {
+        // Arrange
+        long epochMillis = 1_717_171_717_171L;
+
+        // Act
+        UUID uuid = UuidV7.fromEpochMillis(epochMillis);
+
+        // Assert
+        assertEquals(epochMillis, UuidV7.epochMillis(uuid));
+    }
+
+    @Test
+    void fromEpochMillis_OrdersByTime() {
+        // Arrange
+        UUID earlier = UuidV7.fromEpochMillis(1_717_171_717_171L);
+        UUID later = UuidV7.fromEpochMillis(1_717_171_717_172L);
+
+        // Act & Assert - el orden lexicográfico del texto sigue al tiempo
+        assertTrue(earlier.toString().compareTo(later.toString()) < 0);
+        assertNotEquals(UuidV7.fromEpochMillis(1_717_171_717_171L), earlier);
+    }
+}
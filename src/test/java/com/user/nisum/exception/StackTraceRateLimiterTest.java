@@ -0,0 +1,63 @@
+package com.user.nisum.exception;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StackTraceRateLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void tryAcquire_SameErrorWithinInterval_SuppressesRepeats() {
+        // Arrange
+        StackTraceRateLimiter limiter = new StackTraceRateLimiter(Duration.ofMinutes(1), meterRegistry);
+
+        // Act
+        int logged = 0;
+        for (int i = 0; i < 100; i++) {
+            if (limiter.tryAcquire(error("conexión rechazada " + i))) {
+                logged++;
+            }
+        }
+
+        // Assert - el mensaje cambia pero el origen es el mismo
+        assertEquals(1, logged);
+        assertEquals(99, meterRegistry.get("logging.stacktraces.suppressed").counter().count());
+    }
+
+    @Test
+    void tryAcquire_DifferentErrors_EachLoggedOnce() {
+        // Arrange
+        StackTraceRateLimiter limiter = new StackTraceRateLimiter(Duration.ofMinutes(1), meterRegistry);
+
+        // Act & Assert
+        assertTrue(limiter.tryAcquire(error("a")));
+        assertTrue(limiter.tryAcquire(new IllegalArgumentException("b")));
+        assertFalse(limiter.tryAcquire(error("c")));
+    }
+
+    @Test
+    void tryAcquire_AfterInterval_LogsAgain() {
+        // Arrange
+        StackTraceRateLimiter limiter = new StackTraceRateLimiter(Duration.ZERO, meterRegistry);
+
+        // Act & Assert
+        assertTrue(limiter.tryAcquire(error("a")));
+        assertTrue(limiter.tryAcquire(error("b")));
+        assertEquals(0, meterRegistry.get("logging.stacktraces.suppressed").counter().count());
+    }
+
+    private static IllegalStateException error(String message) {
+        return new IllegalStateException(message);
+    }
+}
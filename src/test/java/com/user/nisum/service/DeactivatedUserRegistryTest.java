@@ -0,0 +1,69 @@
+package com.user.nisum.service;
+
+import com.user.nisum.config.JwtPrincipalMode;
+import com.user.nisum.repository.UserRepository;
+import com.user.nisum.service.impl.DeactivatedUserRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeactivatedUserRegistryTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void reload_DatabaseMode_SkipsScan() {
+        // Arrange
+        DeactivatedUserRegistry registry = new DeactivatedUserRegistry(userRepository, JwtPrincipalMode.DATABASE);
+
+        // Act
+        registry.reload();
+
+        // Assert
+        verify(userRepository, never()).findInactiveUserIds();
+    }
+
+    @Test
+    void reload_DeactivationDuringQuery_IsKept() {
+        // Arrange
+        DeactivatedUserRegistry registry = new DeactivatedUserRegistry(userRepository, JwtPrincipalMode.STATELESS);
+        UUID fromTable = UUID.randomUUID();
+        UUID deactivatedDuringReload = UUID.randomUUID();
+        // La desactivación local llega mientras la consulta está en curso y no figura en su resultado
+        when(userRepository.findInactiveUserIds()).thenAnswer(invocation -> {
+            registry.deactivate(deactivatedDuringReload);
+            return List.of(fromTable);
+        });
+
+        // Act
+        registry.reload();
+
+        // Assert
+        assertTrue(registry.isDeactivated(fromTable));
+        assertTrue(registry.isDeactivated(deactivatedDuringReload));
+    }
+
+    @Test
+    void reload_ReactivatedInTable_IsRemoved() {
+        // Arrange
+        DeactivatedUserRegistry registry = new DeactivatedUserRegistry(userRepository, JwtPrincipalMode.STATELESS);
+        UUID userId = UUID.randomUUID();
+        when(userRepository.findInactiveUserIds()).thenReturn(List.of(userId)).thenReturn(List.of());
+        registry.reload();
+
+        // Act
+        registry.reload();
+
+        // Assert
+        assertFalse(registry.isDeactivated(userId));
+    }
+}
@@ -0,0 +1,180 @@
+package com.user.nisum.service;
+
+import com.user.nisum.service.impl.Hs256JwtCodec;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Hs256JwtCodecTest {
+
+    private static final byte[] SECRET = "miClaveSecretaSuperSeguraParaJWT2024".getBytes(StandardCharsets.UTF_8);
+    private static final SecretKey KEY = Keys.hmacShaKeyFor(SECRET);
+
+    private final Hs256JwtCodec codec = new Hs256JwtCodec(SECRET);
+
+    @Test
+    void encode_SameBytesAsJjwt() {
+        // Arrange
+        long now = Instant.now().getEpochSecond();
+        String subject = UUID.randomUUID().toString();
+        String jti = UUID.randomUUID().toString();
+
+        // Act & Assert: incluye caracteres que Jackson escapa y no ASCII
+        for (String email : new String[]{"jose.valdez@empresa.com", "jo\"se\\\n\t\u0001@empresa.com", "josé/ñ@empresa.com"}) {
+            assertEquals(jjwtToken(email, subject, jti, now, now + 900), codec.encode(subject, email, jti, now, now + 900));
+        }
+    }
+
+    @Test
+    void decode_JjwtToken_ReturnsClaims() {
+        // Arrange
+        long now = Instant.now().getEpochSecond();
+        String subject = UUID.randomUUID().toString();
+        String token = jjwtToken("josé\"@empresa.com", subject, "jti-1", now, now + 900);
+
+        // Act
+        VerifiedToken verified = codec.decode(token);
+
+        // Assert
+        assertEquals(new VerifiedToken(subject, "josé\"@empresa.com", "jti-1", Instant.ofEpochSecond(now + 900)), verified);
+    }
+
+    @Test
+    void decode_JjwtTokenWithTypHeaderAndWithoutJti_ReturnsClaims() {
+        // Arrange
+        long now = Instant.now().getEpochSecond();
+        String token = Jwts.builder()
+                .header().add("typ", "JWT").and()
+                .claim("email", "jose.valdez@empresa.com")
+                .subject("user-1")
+                .issuedAt(new Date(now * 1000))
+                .expiration(new Date((now + 900) * 1000))
+                .signWith(KEY, Jwts.SIG.HS256)
+                .compact();
+
+        // Act
+        VerifiedToken verified = codec.decode(token);
+
+        // Assert
+        assertEquals("user-1", verified.userId());
+        assertNull(verified.jti());
+    }
+
+    @Test
+    void encode_TokenAcceptedByJjwt() {
+        // Arrange
+        long now = Instant.now().getEpochSecond();
+        String token = codec.encode("user-1", "jose.valdez@empresa.com", "jti-1", now, now + 900);
+
+        // Act
+        Claims claims = Jwts.parser().verifyWith(KEY).build().parseSignedClaims(token).getPayload();
+
+        // Assert
+        assertEquals("user-1", claims.getSubject());
+        assertEquals("jose.valdez@empresa.com", claims.get("email", String.class));
+        assertEquals("jti-1", claims.getId());
+        assertEquals(now + 900, claims.getExpiration().toInstant().getEpochSecond());
+    }
+
+    @Test
+    void decode_TamperedPayload_Rejected() {
+        // Arrange
+        long now = Instant.now().getEpochSecond();
+        String token = codec.encode("user-1", "jose.valdez@empresa.com", "jti-1", now, now + 900);
+        String[] parts = token.split("\\.");
+        String forged = new Hs256JwtCodec("otraClaveSecretaDeAlMenos32Bytes!!".getBytes(StandardCharsets.UTF_8))
+                .encode("user-2", "jose.valdez@empresa.com", "jti-1", now, now + 900).split("\\.")[1];
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(parts[0] + "." + forged + "." + parts[2]));
+    }
+
+    @Test
+    void decode_UnsignedToken_Rejected() {
+        // Arrange
+        long now = Instant.now().getEpochSecond();
+        String payload = codec.encode("user-1", "jose.valdez@empresa.com", "jti-1", now, now + 900).split("\\.")[1];
+        String header = base64("{\"alg\":\"none\"}");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(header + "." + payload + "."));
+    }
+
+    @Test
+    void decode_ExpiredToken_Rejected() {
+        // Arrange
+        long now = Instant.now().getEpochSecond();
+        String token = codec.encode("user-1", "jose.valdez@empresa.com", "jti-1", now - 60, now - 1);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(token));
+    }
+
+    @Test
+    void decode_MalformedTokens_Rejected() {
+        // Act & Assert
+        for (String token : new String[]{"", "abc", "a.b", "a.b.c.d", "a b.c.d", "é.b.c"}) {
+            assertThrows(IllegalArgumentException.class, () -> codec.decode(token), token);
+        }
+    }
+
+    @Test
+    void encodeAndDecode_ConcurrentVirtualThreads_ShareMacsSafely() throws Exception {
+        // Arrange - más hilos virtuales que huecos del pool, compitiendo por los mismos Mac
+        long now = Instant.now().getEpochSecond();
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        // Act
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 2000; i++) {
+                String subject = "user-" + i;
+                results.add(executor.submit(() -> {
+                    String token = codec.encode(subject, "jose.valdez@empresa.com", "jti-" + subject, now, now + 900);
+                    Claims claims = Jwts.parser().verifyWith(KEY).build().parseSignedClaims(token).getPayload();
+                    return subject.equals(claims.getSubject()) && subject.equals(codec.decode(token).userId());
+                }));
+            }
+        }
+
+        // Assert
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get());
+        }
+    }
+
+    @Test
+    void constructor_ShortSecret_Rejected() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new Hs256JwtCodec("corta".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String jjwtToken(String email, String subject, String jti, long issuedAt, long expiration) {
+        return Jwts.builder()
+                .claim("email", email)
+                .subject(subject)
+                .id(jti)
+                .issuedAt(new Date(issuedAt * 1000))
+                .expiration(new Date(expiration * 1000))
+                .signWith(KEY, Jwts.SIG.HS256)
+                .compact();
+    }
+
+    private static String base64(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,79 @@
+package com.user.nisum.service;
+
+import com.user.nisum.service.impl.JwtServiceImpl;
+import com.user.nisum.service.impl.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "miClaveSecretaSuperSeguraParaJWT2024";
+
+    private VerifiedTokenCache verifiedTokenCache;
+    private JwtServiceImpl jwtService;
+
+    @BeforeEach
+    void setUp() {
+        verifiedTokenCache = new VerifiedTokenCache(100, new SimpleMeterRegistry());
+        jwtService = new JwtServiceImpl(SECRET, 60000L, verifiedTokenCache);
+    }
+
+    @Test
+    void verifyToken_ValidToken_ReturnsClaims() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        String token = jwtService.generateToken(userId, "jose.valdez@empresa.com");
+
+        // Act
+        Optional<VerifiedToken> result = jwtService.verifyToken(token);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(userId.toString(), result.get().userId());
+        assertEquals("jose.valdez@empresa.com", result.get().email());
+        assertFalse(result.get().isExpired());
+    }
+
+    @Test
+    void verifyToken_RepeatedToken_IsServedFromCache() {
+        // Arrange
+        String token = jwtService.generateToken(UUID.randomUUID(), "jose.valdez@empresa.com");
+
+        // Act
+        jwtService.verifyToken(token);
+        jwtService.extractEmail(token);
+        jwtService.isTokenValid(token);
+
+        // Assert
+        assertEquals(1, verifiedTokenCache.missCount());
+        assertEquals(2, verifiedTokenCache.hitCount());
+    }
+
+    @Test
+    void verifyToken_TamperedToken_ReturnsEmpty() {
+        // Arrange
+        String token = jwtService.generateToken(UUID.randomUUID(), "jose.valdez@empresa.com");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // Act & Assert
+        assertTrue(jwtService.verifyToken(tampered).isEmpty());
+        assertFalse(jwtService.isTokenValid(tampered));
+    }
+
+    @Test
+    void verifyToken_ExpiredToken_ReturnsEmptyAndIsNotCached() {
+        // Arrange
+        JwtServiceImpl expiredTokenService = new JwtServiceImpl(SECRET, -1000L, verifiedTokenCache);
+        String token = expiredTokenService.generateToken(UUID.randomUUID(), "jose.valdez@empresa.com");
+
+        // Act & Assert
+        assertTrue(jwtService.verifyToken(token).isEmpty());
+        assertNull(verifiedTokenCache.get(token));
+    }
+}
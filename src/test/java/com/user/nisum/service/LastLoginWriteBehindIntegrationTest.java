@@ -0,0 +1,114 @@
+package com.user.nisum.service;
+
+import com.user.nisum.dtos.PhoneDTODTO;
+import com.user.nisum.dtos.UserRegistrationRequestDTO;
+import com.user.nisum.dtos.UserRegistrationResponseDTO;
+import com.user.nisum.service.impl.LastLoginWriteBehindBuffer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@AutoConfigureTestDatabase
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "password.bcrypt.strength=4",
+        "user.last-login.write-behind.enabled=true",
+        "user.last-login.write-behind.flush-interval-ms=3600000"
+})
+class LastLoginWriteBehindIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private LastLoginWriteBehindBuffer lastLoginBuffer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UserRegistrationResponseDTO registered;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        registered = userService.registerUser(request("buffer." + System.nanoTime() + "@login.cl"));
+        lastLoginBuffer.flush();
+        statistics.clear();
+    }
+
+    @Test
+    void updateLastLogin_RepeatedCalls_CoalescedIntoOneRowWrite() {
+        // Act
+        UserRegistrationResponseDTO last = null;
+        for (int i = 0; i < 50; i++) {
+            last = userService.updateLastLogin(registered.getId());
+        }
+
+        // Assert - nada se escribe hasta el volcado
+        assertEquals(0, statistics.getEntityUpdateCount());
+        assertEquals(1, lastLoginBuffer.pendingCount());
+        assertSameMicros(registered.getLastLogin().toLocalDateTime(), storedLastLogin());
+
+        assertEquals(1, lastLoginBuffer.flush());
+        assertEquals(0, lastLoginBuffer.pendingCount());
+        assertSameMicros(last.getLastLogin().toLocalDateTime(), storedLastLogin());
+        // La copia en la caché de segundo nivel se descartó al volcar
+        assertSameMicros(last.getLastLogin().toLocalDateTime(),
+                userService.getUserById(registered.getId()).getLastLogin().toLocalDateTime());
+    }
+
+    @Test
+    void flush_OlderThanStoredValue_DoesNotMoveLastLoginBack() {
+        // Arrange - un login persistido después del timestamp que quedó en el buffer
+        lastLoginBuffer.record(registered.getId(), LocalDateTime.now().minusHours(1));
+        LocalDateTime stored = storedLastLogin();
+
+        // Act
+        int written = lastLoginBuffer.flush();
+
+        // Assert
+        assertEquals(0, written);
+        assertEquals(stored, storedLastLogin());
+    }
+
+    private LocalDateTime storedLastLogin() {
+        return jdbcTemplate.queryForObject("select last_login from users where id = ?",
+                LocalDateTime.class, registered.getId());
+    }
+
+    // La columna guarda microsegundos redondeando los nanosegundos del reloj
+    private static void assertSameMicros(LocalDateTime expected, LocalDateTime actual) {
+        assertTrue(Duration.between(expected, actual).abs().toNanos() < 1_000,
+                "expected: <" + expected + "> but was: <" + actual + ">");
+    }
+
+    private static UserRegistrationRequestDTO request(String email) {
+        PhoneDTODTO phone = new PhoneDTODTO();
+        phone.setNumber("1234567");
+        phone.setCitycode("1");
+        phone.setContrycode("57");
+
+        UserRegistrationRequestDTO request = new UserRegistrationRequestDTO();
+        request.setName("José Francisco Valdez");
+        request.setEmail(email);
+        request.setPassword("SecurePass1@");
+        request.setPhones(List.of(phone));
+        return request;
+    }
+}
@@ -0,0 +1,75 @@
+package com.user.nisum.service;
+
+import com.user.nisum.exception.TooManyRequestsException;
+import com.user.nisum.service.impl.LoginThrottle;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginThrottle loginThrottle;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // 3 intentos por email, 5 por IP, recarga de 1 por minuto
+        loginThrottle = new LoginThrottle(true, 3, 1, 5, 1, 600000, meterRegistry);
+    }
+
+    @Test
+    void acquire_OverEmailLimit_ThrowsTooManyRequests() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            loginThrottle.acquire("jose.valdez@empresa.com", "10.0.0." + i);
+        }
+
+        // Act & Assert
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> loginThrottle.acquire("JOSE.VALDEZ@empresa.com", "10.0.0.9"));
+        assertTrue(exception.getRetryAfterSeconds() >= 1);
+        assertEquals(1.0, meterRegistry.get("login.throttled").tag("key", "email").counter().count());
+    }
+
+    @Test
+    void acquire_OverIpLimit_ThrowsTooManyRequests() {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            loginThrottle.acquire("user" + i + "@empresa.com", "10.0.0.1");
+        }
+
+        // Act & Assert
+        assertThrows(TooManyRequestsException.class,
+                () -> loginThrottle.acquire("otro@empresa.com", "10.0.0.1"));
+        assertDoesNotThrow(() -> loginThrottle.acquire("otro@empresa.com", "10.0.0.2"));
+        assertEquals(1.0, meterRegistry.get("login.throttled").tag("key", "ip").counter().count());
+    }
+
+    @Test
+    void acquire_Disabled_NeverThrottles() {
+        // Arrange
+        LoginThrottle disabled = new LoginThrottle(false, 1, 1, 1, 1, 600000, meterRegistry);
+
+        // Act & Assert
+        for (int i = 0; i < 10; i++) {
+            assertDoesNotThrow(() -> disabled.acquire("jose.valdez@empresa.com", "10.0.0.1"));
+        }
+    }
+
+    @Test
+    void evictIdleBuckets_RemovesInactiveBuckets() {
+        // Arrange
+        LoginThrottle shortLived = new LoginThrottle(true, 3, 1, 5, 1, 0, meterRegistry);
+        shortLived.acquire("jose.valdez@empresa.com", "10.0.0.1");
+        assertEquals(2, shortLived.bucketCount());
+
+        // Act
+        shortLived.evictIdleBuckets();
+
+        // Assert
+        assertEquals(0, shortLived.bucketCount());
+    }
+}
@@ -0,0 +1,173 @@
+package com.user.nisum.service;
+
+import com.user.nisum.exception.ServiceUnavailableException;
+import com.user.nisum.service.impl.PasswordHashingExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingExecutor hashingExecutor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hashingExecutor = new PasswordHashingExecutor(1, 1, 0, 2, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hashingExecutor.shutdown();
+    }
+
+    @Test
+    void execute_ReturnsTaskResult() {
+        // Act
+        String result = hashingExecutor.execute(() -> "encodedPassword");
+
+        // Assert
+        assertEquals("encodedPassword", result);
+        assertEquals(1, meterRegistry.get("password.hashing.wait").timer().count());
+    }
+
+    @Test
+    void execute_QueueFull_RejectsWithRetryAfter() throws Exception {
+        // Arrange - un hilo ocupado y la cola (capacidad 1) llena
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        Future<Boolean> running = callers.submit(
+                () -> hashingExecutor.execute(() -> release.await(5, TimeUnit.SECONDS)));
+        Future<Boolean> queued = callers.submit(
+                () -> hashingExecutor.execute(() -> true));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (hashingExecutor.queueDepth() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Act & Assert
+        ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class,
+                () -> hashingExecutor.execute(() -> "encodedPassword"));
+        assertEquals(2, exception.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("password.hashing.rejected").counter().count());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+        callers.shutdown();
+    }
+
+    @Test
+    void execute_TaskFailure_PropagatesRuntimeException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> hashingExecutor.execute(() -> {
+            throw new IllegalArgumentException("hash inválido");
+        }));
+    }
+
+    @Test
+    void executeAll_UsesAtMostBatchParallelismThreadsAndKeepsOrder() {
+        // Arrange - 4 hilos, cupo de 2 para lotes y cola de capacidad 1
+        PasswordHashingExecutor parallelExecutor = new PasswordHashingExecutor(4, 1, 2, 1, new SimpleMeterRegistry());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Callable<String>> tasks = IntStream.range(0, 10)
+                .<Callable<String>>mapToObj(i -> () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(10);
+                    running.decrementAndGet();
+                    return "hash-" + i;
+                })
+                .toList();
+
+        try {
+            // Act
+            List<String> results = parallelExecutor.executeAll(tasks);
+
+            // Assert
+            assertEquals(IntStream.range(0, 10).mapToObj(i -> "hash-" + i).toList(), results);
+            assertTrue(maxRunning.get() <= 2, "hilos ocupados por el lote: " + maxRunning.get());
+        } finally {
+            parallelExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void execute_LoginDuringLargeBatch_IsNotQueuedBehindIt() throws Exception {
+        // Arrange - 4 hilos con el cupo por defecto (3) y un lote de 500 trabado en sus primeras tareas
+        PasswordHashingExecutor sharedExecutor = new PasswordHashingExecutor(4, 1, 0, 1, new SimpleMeterRegistry());
+        CountDownLatch batchStarted = new CountDownLatch(3);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Callable<String>> batch = IntStream.range(0, 500)
+                .<Callable<String>>mapToObj(i -> () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    batchStarted.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    running.decrementAndGet();
+                    return "hash-" + i;
+                })
+                .toList();
+        ExecutorService callers = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<List<String>> batchResult = callers.submit(() -> sharedExecutor.executeAll(batch));
+            assertTrue(batchStarted.await(5, TimeUnit.SECONDS));
+
+            // Act & Assert - los logins usan el hilo reservado; un segundo lote no tiene cupo
+            assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+                for (int i = 0; i < 3; i++) {
+                    assertTrue(sharedExecutor.execute(() -> true));
+                }
+            });
+            assertThrows(ServiceUnavailableException.class,
+                    () -> sharedExecutor.executeAll(List.<Callable<String>>of(() -> "hash")));
+
+            release.countDown();
+            assertEquals(500, batchResult.get(5, TimeUnit.SECONDS).size());
+            assertEquals(3, maxRunning.get());
+        } finally {
+            release.countDown();
+            callers.shutdown();
+            sharedExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void executeAll_TaskFailure_PropagatesAndReleasesBatchPermits() {
+        // Arrange - cupo de un hilo: si el permiso no se devolviera, el segundo lote se rechazaría
+        PasswordHashingExecutor parallelExecutor = new PasswordHashingExecutor(4, 1, 1, 1, new SimpleMeterRegistry());
+        List<Callable<String>> failing = List.of(() -> "hash", () -> {
+            throw new IllegalArgumentException("hash inválido");
+        });
+
+        try {
+            // Act & Assert - el cupo vuelve a estar disponible para el siguiente lote
+            assertThrows(IllegalArgumentException.class, () -> parallelExecutor.executeAll(failing));
+            assertEquals(List.of("a", "b"), parallelExecutor.executeAll(List.<Callable<String>>of(() -> "a", () -> "b")));
+        } finally {
+            parallelExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void executeAll_EmptyList_ReturnsEmpty() {
+        assertTrue(hashingExecutor.executeAll(List.of()).isEmpty());
+    }
+}
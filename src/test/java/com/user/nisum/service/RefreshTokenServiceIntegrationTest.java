@@ -0,0 +1,92 @@
+package com.user.nisum.service;
+
+import com.user.nisum.dtos.PhoneDTODTO;
+import com.user.nisum.dtos.UserRegistrationRequestDTO;
+import com.user.nisum.dtos.UserRegistrationResponseDTO;
+import com.user.nisum.exception.InvalidRefreshTokenException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@AutoConfigureTestDatabase
+@SpringBootTest(properties = "password.bcrypt.strength=4")
+class RefreshTokenServiceIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @SpyBean
+    private PasswordEncoder passwordEncoder;
+
+    private UserRegistrationResponseDTO registered;
+
+    @BeforeEach
+    void setUp() {
+        registered = userService.registerUser(request("refresh." + System.nanoTime() + "@token.cl"));
+        clearInvocations(passwordEncoder);
+    }
+
+    @Test
+    void refresh_ValidToken_RotatesWithoutCheckingPassword() {
+        // Arrange
+        String refreshToken = refreshTokenService.issue(registered.getId());
+
+        // Act
+        TokenPair tokens = refreshTokenService.refresh(refreshToken);
+
+        // Assert
+        assertNotEquals(refreshToken, tokens.refreshToken());
+        assertEquals(registered.getId().toString(), jwtService.extractUserId(tokens.accessToken()));
+        assertNotNull(refreshTokenService.refresh(tokens.refreshToken()).accessToken());
+        verify(passwordEncoder, never()).matches(any(), any());
+    }
+
+    @Test
+    void refresh_ReusedToken_RevokesWholeFamily() {
+        // Arrange
+        String stolen = refreshTokenService.issue(registered.getId());
+        TokenPair legitimate = refreshTokenService.refresh(stolen);
+
+        // Act & Assert - el token robado se presenta otra vez
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh(stolen));
+        // La revocación se confirmó: el último token emitido de la familia tampoco sirve
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh(legitimate.refreshToken()));
+    }
+
+    @Test
+    void refresh_UnknownToken_Throws() {
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh("desconocido"));
+    }
+
+    private static UserRegistrationRequestDTO request(String email) {
+        PhoneDTODTO phone = new PhoneDTODTO();
+        phone.setNumber("1234567");
+        phone.setCitycode("1");
+        phone.setContrycode("57");
+
+        UserRegistrationRequestDTO request = new UserRegistrationRequestDTO();
+        request.setName("José Francisco Valdez");
+        request.setEmail(email);
+        request.setPassword("SecurePass1@");
+        request.setPhones(List.of(phone));
+        return request;
+    }
+}
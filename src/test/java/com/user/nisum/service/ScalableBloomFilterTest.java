@@ -0,0 +1,50 @@
+package com.user.nisum.service;
+
+import com.user.nisum.service.impl.ScalableBloomFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScalableBloomFilterTest {
+
+    @Test
+    void mightContain_AddedValues_AlwaysTrue() {
+        // Arrange
+        ScalableBloomFilter filter = new ScalableBloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.add("usuario" + i + "@empresa.com");
+        }
+
+        // Act & Assert
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain("usuario" + i + "@empresa.com"));
+        }
+    }
+
+    @Test
+    void add_BeyondCapacity_GrowsAndKeepsFalsePositiveRate() {
+        // Arrange - diez veces la capacidad inicial
+        ScalableBloomFilter filter = new ScalableBloomFilter(1000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("usuario" + i + "@empresa.com");
+        }
+
+        // Act
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("otro" + i + "@dominio.cl")) {
+                falsePositives++;
+            }
+        }
+
+        // Assert
+        assertTrue(filter.sliceCount() > 1);
+        assertTrue(filter.mightContain("usuario0@empresa.com"));
+        assertTrue(falsePositives / 100_000.0 <= 0.01, "Tasa de falsos positivos: " + falsePositives / 100_000.0);
+    }
+
+    @Test
+    void constructor_InvalidFalsePositiveRate_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(1000, 1.0));
+    }
+}
@@ -0,0 +1,135 @@
+package com.user.nisum.service;
+
+import com.user.nisum.entity.RevokedToken;
+import com.user.nisum.repository.RevokedTokenRepository;
+import com.user.nisum.service.impl.TokenRevocationList;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@AutoConfigureTestDatabase
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "password.bcrypt.strength=4"
+})
+class TokenRevocationListIntegrationTest {
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void revoke_TokenIsRevokedWithoutQueryingDatabase() {
+        // Arrange
+        VerifiedToken token = jwtService.verifyToken(jwtService.generateToken(UUID.randomUUID(), "jose.valdez@empresa.com"))
+                .orElseThrow();
+        assertNotNull(token.jti());
+        tokenRevocationList.revoke(token);
+        statistics.clear();
+
+        // Act
+        boolean revoked = tokenRevocationList.isRevoked(token.jti());
+        boolean otherRevoked = tokenRevocationList.isRevoked(UUID.randomUUID().toString());
+
+        // Assert
+        assertTrue(revoked);
+        assertFalse(otherRevoked);
+        assertEquals(0, statistics.getPrepareStatementCount(), "Sentencias preparadas");
+    }
+
+    @Test
+    void revoke_AlreadyRevokedByAnotherInstance_IsIgnored() {
+        // Arrange
+        VerifiedToken token = jwtService.verifyToken(jwtService.generateToken(UUID.randomUUID(), "jose.valdez@empresa.com"))
+                .orElseThrow();
+        tokenRevocationList.revoke(token);
+        TokenRevocationList otherInstance = new TokenRevocationList(revokedTokenRepository, new SimpleMeterRegistry());
+
+        // Act
+        assertDoesNotThrow(() -> otherInstance.revoke(token));
+
+        // Assert
+        assertTrue(otherInstance.isRevoked(token.jti()));
+        assertTrue(revokedTokenRepository.existsById(token.jti()));
+    }
+
+    @Test
+    void reload_RebuildsFromTableSkippingExpired() {
+        // Arrange
+        VerifiedToken token = jwtService.verifyToken(jwtService.generateToken(UUID.randomUUID(), "jose.valdez@empresa.com"))
+                .orElseThrow();
+        tokenRevocationList.revoke(token);
+        String expiredJti = UUID.randomUUID().toString();
+        revokedTokenRepository.save(RevokedToken.builder()
+                .jti(expiredJti)
+                .userId(UUID.randomUUID())
+                .expiresAt(Instant.now().minusSeconds(60))
+                .revokedAt(Instant.now().minusSeconds(120))
+                .build());
+        TokenRevocationList restarted = new TokenRevocationList(revokedTokenRepository, new SimpleMeterRegistry());
+
+        // Act
+        restarted.reload();
+
+        // Assert
+        assertTrue(restarted.isRevoked(token.jti()));
+        assertFalse(restarted.isRevoked(expiredJti));
+    }
+
+    @Test
+    void purgeExpired_DeletesExpiredRevocations() {
+        // Arrange
+        String expiredJti = UUID.randomUUID().toString();
+        revokedTokenRepository.save(RevokedToken.builder()
+                .jti(expiredJti)
+                .userId(UUID.randomUUID())
+                .expiresAt(Instant.now().minusSeconds(1))
+                .revokedAt(Instant.now().minusSeconds(60))
+                .build());
+
+        // Act
+        tokenRevocationList.purgeExpired();
+
+        // Assert
+        assertFalse(revokedTokenRepository.existsById(expiredJti));
+    }
+
+    @Test
+    void issuedTokens_HaveDistinctJti() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+
+        // Act
+        String first = jwtService.verifyToken(jwtService.generateToken(userId, "jose.valdez@empresa.com")).orElseThrow().jti();
+        String second = jwtService.verifyToken(jwtService.generateToken(userId, "jose.valdez@empresa.com")).orElseThrow().jti();
+
+        // Assert
+        assertNotEquals(first, second);
+    }
+}
@@ -0,0 +1,69 @@
+package com.user.nisum.service;
+
+import com.user.nisum.dtos.BatchRegistrationResponseDTO;
+import com.user.nisum.dtos.PhoneDTODTO;
+import com.user.nisum.dtos.UserRegistrationRequestDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@AutoConfigureTestDatabase
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "password.bcrypt.strength=4"
+})
+class UserBatchServiceIntegrationTest {
+
+    @Autowired
+    private UserBatchService userBatchService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void registerUsers_InsertsUsersAndPhonesInJdbcBatches() {
+        // Arrange - 60 usuarios con 2 teléfonos cada uno
+        List<UserRegistrationRequestDTO> requests = IntStream.range(0, 60)
+                .mapToObj(i -> request("Usuario " + i, "usuario" + i + "@lote.cl"))
+                .toList();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        BatchRegistrationResponseDTO result = userBatchService.registerUsers(requests);
+
+        // Assert
+        assertEquals(60, result.getCreated());
+        assertEquals(180, statistics.getEntityInsertCount());
+        // Sin batch serían más de 180 sentencias (una por INSERT más las de IDENTITY)
+        assertTrue(statistics.getPrepareStatementCount() <= 10,
+                "Sentencias preparadas: " + statistics.getPrepareStatementCount());
+    }
+
+    private static UserRegistrationRequestDTO request(String name, String email) {
+        PhoneDTODTO home = new PhoneDTODTO();
+        home.setNumber("1234567");
+        home.setCitycode("1");
+        home.setContrycode("57");
+        PhoneDTODTO mobile = new PhoneDTODTO();
+        mobile.setNumber("7654321");
+        mobile.setCitycode("9");
+        mobile.setContrycode("56");
+
+        UserRegistrationRequestDTO request = new UserRegistrationRequestDTO();
+        request.setName(name);
+        request.setEmail(email);
+        request.setPassword("SecurePass1@");
+        request.setPhones(List.of(home, mobile));
+        return request;
+    }
+}
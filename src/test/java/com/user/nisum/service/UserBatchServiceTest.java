@@ -0,0 +1,194 @@
+package com.user.nisum.service;
+
+import com.user.nisum.config.BoundedPasswordEncoder;
+import com.user.nisum.dtos.BatchRegistrationResponseDTO;
+import com.user.nisum.dtos.BatchRegistrationResultDTO;
+import com.user.nisum.dtos.PhoneDTODTO;
+import com.user.nisum.dtos.UserRegistrationRequestDTO;
+import com.user.nisum.dtos.UserRegistrationResponseDTO;
+import com.user.nisum.entity.Phone;
+import com.user.nisum.entity.User;
+import com.user.nisum.exception.BusinessRuleException;
+import com.user.nisum.mapper.UserMapper;
+import com.user.nisum.repository.UserRepository;
+import com.user.nisum.service.impl.RegisteredEmailFilter;
+import com.user.nisum.service.impl.UserBatchServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserBatchServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Mock
+    private RegisteredEmailFilter registeredEmailFilter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private UserBatchServiceImpl userBatchService;
+
+    @Test
+    void registerUsers_DuplicatesReportedPerItem_RestInsertedInOneBatch() {
+        // Arrange - el segundo ya existe en la base y el tercero repite el correo del primero
+        UserRegistrationRequestDTO jose = request("José Francisco Valdez", "jose.valdez@empresa.com", "SecurePass1@");
+        UserRegistrationRequestDTO existing = request("María García", "maria.garcia@dominio.cl", "SecurePass2@");
+        UserRegistrationRequestDTO repeated = request("José Valdez", "jose.valdez@empresa.com", "SecurePass3@");
+        UserRegistrationRequestDTO ana = request("Ana Pérez", "ana.perez@dominio.cl", "SecurePass4@");
+
+        when(registeredEmailFilter.mightBeRegistered(anyString())).thenReturn(true);
+        when(userRepository.findExistingEmails(anyList())).thenReturn(List.of("maria.garcia@dominio.cl"));
+        when(passwordEncoder.encodeAll(List.of("SecurePass1@", "SecurePass4@"))).thenReturn(List.of("hash1", "hash4"));
+        when(userMapper.toEntity(any(UserRegistrationRequestDTO.class)))
+                .thenAnswer(invocation -> entity(invocation.getArgument(0)));
+        when(userMapper.toPhoneEntityList(anyList())).thenAnswer(invocation -> List.of(new Phone()));
+        when(jwtService.generateToken(any(UUID.class), anyString())).thenReturn("jwt.token.here");
+        when(userMapper.toResponse(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            UserRegistrationResponseDTO response = new UserRegistrationResponseDTO();
+            response.setId(user.getId());
+            response.setEmail(user.getEmail());
+            return response;
+        });
+
+        // Act
+        BatchRegistrationResponseDTO result = userBatchService.registerUsers(List.of(jose, existing, repeated, ana));
+
+        // Assert
+        assertEquals(4, result.getTotal());
+        assertEquals(2, result.getCreated());
+        assertEquals(2, result.getFailed());
+
+        List<BatchRegistrationResultDTO> results = result.getResults();
+        assertEquals(BatchRegistrationResultDTO.StatusEnum.CREATED, results.get(0).getStatus());
+        assertEquals("jose.valdez@empresa.com", results.get(0).getUsuario().getEmail());
+        assertEquals(BatchRegistrationResultDTO.StatusEnum.DUPLICATE_EMAIL, results.get(1).getStatus());
+        assertEquals("El correo ya registrado", results.get(1).getMensaje());
+        assertEquals(BatchRegistrationResultDTO.StatusEnum.DUPLICATE_EMAIL, results.get(2).getStatus());
+        assertEquals(BatchRegistrationResultDTO.StatusEnum.CREATED, results.get(3).getStatus());
+        assertEquals(3, results.get(3).getIndex());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<User>> usersCaptor = ArgumentCaptor.forClass(List.class);
+        verify(userRepository).saveAllAndFlush(usersCaptor.capture());
+        List<User> saved = usersCaptor.getValue();
+        assertEquals(2, saved.size());
+        assertEquals("hash1", saved.get(0).getPassword());
+        assertEquals("hash4", saved.get(1).getPassword());
+        assertNotNull(saved.get(0).getId());
+        assertEquals("jwt.token.here", saved.get(0).getToken());
+        assertSame(saved.get(0), saved.get(0).getPhones().get(0).getUser());
+        verify(passwordEncoder, never()).encode(any());
+        verify(registeredEmailFilter).add("jose.valdez@empresa.com");
+        verify(registeredEmailFilter).add("ana.perez@dominio.cl");
+    }
+
+    @Test
+    void registerUsers_ConcurrentDuplicateNotInFilter_ReportedPerItemAndRestInserted() {
+        // Arrange - el filtro descarta ambos correos, pero José se registró en otra instancia hace instantes
+        UserRegistrationRequestDTO jose = request("José Francisco Valdez", "jose.valdez@empresa.com", "SecurePass1@");
+        UserRegistrationRequestDTO ana = request("Ana Pérez", "ana.perez@dominio.cl", "SecurePass4@");
+        when(passwordEncoder.encodeAll(anyList())).thenReturn(List.of("hash1", "hash4"));
+        when(userMapper.toEntity(any(UserRegistrationRequestDTO.class)))
+                .thenAnswer(invocation -> entity(invocation.getArgument(0)));
+        when(userMapper.toPhoneEntityList(anyList())).thenAnswer(invocation -> List.of(new Phone()));
+        when(userRepository.saveAllAndFlush(anyList()))
+                .thenThrow(duplicateEmailViolation())
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.findExistingEmails(List.of("jose.valdez@empresa.com", "ana.perez@dominio.cl")))
+                .thenReturn(List.of("jose.valdez@empresa.com"));
+
+        // Act
+        BatchRegistrationResponseDTO result = userBatchService.registerUsers(List.of(jose, ana));
+
+        // Assert
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getFailed());
+        assertEquals(BatchRegistrationResultDTO.StatusEnum.DUPLICATE_EMAIL, result.getResults().get(0).getStatus());
+        assertEquals(BatchRegistrationResultDTO.StatusEnum.CREATED, result.getResults().get(1).getStatus());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<User>> usersCaptor = ArgumentCaptor.forClass(List.class);
+        verify(userRepository, times(2)).saveAllAndFlush(usersCaptor.capture());
+        List<User> retried = usersCaptor.getAllValues().get(1);
+        assertEquals(1, retried.size());
+        assertEquals("ana.perez@dominio.cl", retried.get(0).getEmail());
+        assertEquals("hash4", retried.get(0).getPassword());
+        verify(passwordEncoder, times(1)).encodeAll(anyList());
+        verify(registeredEmailFilter).add("jose.valdez@empresa.com");
+        verify(registeredEmailFilter).add("ana.perez@dominio.cl");
+    }
+
+    @Test
+    void registerUsers_ConcurrentDuplicateOnRetry_ThrowsBusinessRuleException() {
+        // Arrange - la revisión no encuentra el correo (aún sin confirmar) y el reintento vuelve a chocar
+        UserRegistrationRequestDTO jose = request("José Francisco Valdez", "jose.valdez@empresa.com", "SecurePass1@");
+        when(passwordEncoder.encodeAll(anyList())).thenReturn(List.of("hash1"));
+        when(userMapper.toEntity(any(UserRegistrationRequestDTO.class)))
+                .thenAnswer(invocation -> entity(invocation.getArgument(0)));
+        when(userMapper.toPhoneEntityList(anyList())).thenAnswer(invocation -> List.of(new Phone()));
+        when(userRepository.saveAllAndFlush(anyList())).thenThrow(duplicateEmailViolation());
+        when(userRepository.findExistingEmails(anyList())).thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(BusinessRuleException.class, () -> userBatchService.registerUsers(List.of(jose)));
+        verify(userRepository, times(2)).saveAllAndFlush(anyList());
+        verify(userMapper, never()).toResponse(any());
+        verify(registeredEmailFilter, never()).add(anyString());
+    }
+
+    private static DataIntegrityViolationException duplicateEmailViolation() {
+        return new DataIntegrityViolationException(
+                "could not execute batch",
+                new SQLException("Unique index or primary key violation: \"PUBLIC.UK_USERS_EMAIL_INDEX_4 ON PUBLIC.USERS(EMAIL)\""));
+    }
+
+    private static UserRegistrationRequestDTO request(String name, String email, String password) {
+        PhoneDTODTO phone = new PhoneDTODTO();
+        phone.setNumber("1234567");
+        phone.setCitycode("1");
+        phone.setContrycode("57");
+
+        UserRegistrationRequestDTO request = new UserRegistrationRequestDTO();
+        request.setName(name);
+        request.setEmail(email);
+        request.setPassword(password);
+        request.setPhones(List.of(phone));
+        return request;
+    }
+
+    private static User entity(UserRegistrationRequestDTO request) {
+        return User.builder()
+                .name(request.getName())
+                .email(request.getEmail())
+                .build();
+    }
+}
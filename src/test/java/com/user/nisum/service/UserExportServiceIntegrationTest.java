@@ -0,0 +1,89 @@
+package com.user.nisum.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.user.nisum.dtos.PhoneDTODTO;
+import com.user.nisum.dtos.UserRegistrationRequestDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@AutoConfigureTestDatabase
+@SpringBootTest(properties = "password.bcrypt.strength=4")
+class UserExportServiceIntegrationTest {
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private UserBatchService userBatchService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportUsers_WritesOneLinePerUserWithPhones() throws Exception {
+        // Arrange
+        userBatchService.registerUsers(List.of(
+                request("José Exportado", "jose@exportacion.cl", phone("1234567", "1", "57"), phone("7654321", "9", "56")),
+                request("María Exportada", "maria@exportacion.cl", phone("5555555", "2", "57"))));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        long exported = userExportService.exportUsers(output);
+
+        // Assert
+        List<String> lines = Arrays.asList(output.toString(StandardCharsets.UTF_8).split("\n"));
+        assertEquals(exported, lines.size());
+        Map<String, JsonNode> byEmail = lines.stream()
+                .map(this::parse)
+                .collect(Collectors.toMap(node -> node.get("email").asText(), Function.identity()));
+
+        JsonNode jose = byEmail.get("jose@exportacion.cl");
+        assertEquals("José Exportado", jose.get("name").asText());
+        assertTrue(jose.get("isactive").asBoolean());
+        assertTrue(jose.get("created").asText().endsWith("Z"));
+        assertEquals(2, jose.get("phones").size());
+        assertEquals("7654321", jose.get("phones").get(1).get("number").asText());
+        assertFalse(jose.has("password"));
+        assertFalse(jose.has("token"));
+
+        assertEquals(1, byEmail.get("maria@exportacion.cl").get("phones").size());
+    }
+
+    private JsonNode parse(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (Exception e) {
+            throw new AssertionError("Línea NDJSON inválida: " + line, e);
+        }
+    }
+
+    private static UserRegistrationRequestDTO request(String name, String email, PhoneDTODTO... phones) {
+        UserRegistrationRequestDTO request = new UserRegistrationRequestDTO();
+        request.setName(name);
+        request.setEmail(email);
+        request.setPassword("SecurePass1@");
+        request.setPhones(List.of(phones));
+        return request;
+    }
+
+    private static PhoneDTODTO phone(String number, String citycode, String contrycode) {
+        PhoneDTODTO phone = new PhoneDTODTO();
+        phone.setNumber(number);
+        phone.setCitycode(citycode);
+        phone.setContrycode(contrycode);
+        return phone;
+    }
+}
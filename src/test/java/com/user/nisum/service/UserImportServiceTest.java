@@ -0,0 +1,251 @@
+package com.user.nisum.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.user.nisum.dtos.BatchRegistrationResponseDTO;
+import com.user.nisum.dtos.UserRegistrationRequestDTO;
+import com.user.nisum.exception.BusinessRuleException;
+import com.user.nisum.exception.ServiceUnavailableException;
+import com.user.nisum.service.impl.PasswordHashingExecutor;
+import com.user.nisum.service.impl.UserImportServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceTest {
+
+    @Mock
+    private UserBatchService userBatchService;
+
+    @TempDir
+    Path tempDir;
+
+    private ValidatorFactory validatorFactory;
+    private UserImportServiceImpl userImportService;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        userImportService = new UserImportServiceImpl(userBatchService, new ObjectMapper(), validatorFactory.getValidator(), 2, 5_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void importUsers_Ndjson_CommitsValidRecordsInChunksAndRejectsInvalid() throws Exception {
+        // Arrange - 3 válidos, 1 email inválido, 1 JSON mal formado
+        Path file = tempDir.resolve("usuarios.ndjson");
+        Files.write(file, List.of(
+                json("José Valdez", "jose.valdez@empresa.com"),
+                json("María García", "maria.garcia@dominio.cl"),
+                json("Chavela Primera", "invalid-email"),
+                "{\"name\": \"Roto\"",
+                "",
+                json("Ana Pérez", "ana.perez@dominio.cl")));
+        List<List<UserRegistrationRequestDTO>> chunks = recordChunks();
+
+        // Act
+        ImportReport report = userImportService.importUsers(file);
+
+        // Assert
+        assertEquals(List.of(
+                List.of("jose.valdez@empresa.com", "maria.garcia@dominio.cl"),
+                List.of("ana.perez@dominio.cl")), emails(chunks));
+        assertEquals(5, report.read());
+        assertEquals(3, report.created());
+        assertEquals(2, report.rejected());
+        assertEquals(0, report.resumedFrom());
+        assertFalse(Files.exists(tempDir.resolve("usuarios.ndjson.checkpoint")));
+    }
+
+    @Test
+    void importUsers_Csv_ParsesPhones() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("usuarios.csv");
+        Files.write(file, List.of(
+                "name,email,password,phones",
+                "José Valdez,jose.valdez@empresa.com,SecurePass1@,1234567:1:57|7654321:9:56",
+                "\"García, María\",maria.garcia@dominio.cl,SecurePass1@,5555555:2:57",
+                "Sin Teléfono,sin.telefono@dominio.cl,SecurePass1@,"));
+        List<List<UserRegistrationRequestDTO>> chunks = recordChunks();
+
+        // Act
+        ImportReport report = userImportService.importUsers(file);
+
+        // Assert - el usuario sin teléfonos no cumple minItems
+        UserRegistrationRequestDTO jose = chunks.get(0).get(0);
+        assertEquals(2, jose.getPhones().size());
+        assertEquals("7654321", jose.getPhones().get(1).getNumber());
+        assertEquals("56", jose.getPhones().get(1).getContrycode());
+        assertEquals("García, María", chunks.get(0).get(1).getName());
+        assertEquals(1, report.rejected());
+        assertEquals(2, report.created());
+    }
+
+    @Test
+    void importUsers_CsvMalformedLine_RejectsItAndKeepsReading() throws Exception {
+        // Arrange - la segunda fila tiene una columna de más
+        Path file = tempDir.resolve("usuarios.csv");
+        Files.write(file, List.of(
+                "name,email,password,phones",
+                "José Valdez,jose.valdez@empresa.com,SecurePass1@,1234567:1:57",
+                "Roto,roto@dominio.cl,SecurePass1@,1234567:1:57,sobrante",
+                "María García,maria.garcia@dominio.cl,SecurePass1@,5555555:2:57"));
+        List<List<UserRegistrationRequestDTO>> chunks = recordChunks();
+
+        // Act
+        ImportReport report = userImportService.importUsers(file);
+
+        // Assert
+        assertEquals(List.of(List.of("jose.valdez@empresa.com", "maria.garcia@dominio.cl")), emails(chunks));
+        assertEquals(3, report.read());
+        assertEquals(2, report.created());
+        assertEquals(1, report.rejected());
+    }
+
+    @Test
+    void importUsers_FailureMidImport_ResumesFromLastCommittedChunk() throws Exception {
+        // Arrange - el segundo chunk falla
+        Path file = tempDir.resolve("usuarios.ndjson");
+        Files.write(file, List.of(
+                json("José Valdez", "jose.valdez@empresa.com"),
+                json("María García", "maria.garcia@dominio.cl"),
+                json("Ana Pérez", "ana.perez@dominio.cl"),
+                json("Luis Soto", "luis.soto@dominio.cl")));
+        when(userBatchService.registerUsers(anyList()))
+                .thenAnswer(invocation -> created(invocation.getArgument(0)))
+                .thenThrow(new BusinessRuleException("Uno o más correos del lote fueron registrados concurrentemente, reintente el lote"));
+
+        assertThrows(BusinessRuleException.class, () -> userImportService.importUsers(file));
+        assertTrue(Files.readString(tempDir.resolve("usuarios.ndjson.checkpoint")).contains("records=2"));
+
+        // Act - segunda ejecución
+        reset(userBatchService);
+        List<List<UserRegistrationRequestDTO>> chunks = recordChunks();
+        ImportReport report = userImportService.importUsers(file);
+
+        // Assert
+        assertEquals(List.of(List.of("ana.perez@dominio.cl", "luis.soto@dominio.cl")), emails(chunks));
+        assertEquals(2, report.resumedFrom());
+        assertEquals(2, report.read());
+        assertFalse(Files.exists(tempDir.resolve("usuarios.ndjson.checkpoint")));
+    }
+
+    @Test
+    void importUsers_BatchHoldsHashingPermit_WaitsInsteadOfFailing() throws Exception {
+        // Arrange - pool con cupo de un hilo para lotes, ocupado por otro lote mientras se confirma el chunk
+        PasswordHashingExecutor hashingExecutor = new PasswordHashingExecutor(2, 4, 1, 0, new SimpleMeterRegistry());
+        CountDownLatch otherBatchRunning = new CountDownLatch(1);
+        CountDownLatch releaseOtherBatch = new CountDownLatch(1);
+        ExecutorService otherCaller = Executors.newSingleThreadExecutor();
+        Path file = tempDir.resolve("usuarios.ndjson");
+        Files.write(file, List.of(
+                json("José Valdez", "jose.valdez@empresa.com"),
+                json("María García", "maria.garcia@dominio.cl")));
+        AtomicInteger attempts = new AtomicInteger();
+        when(userBatchService.registerUsers(anyList())).thenAnswer(invocation -> {
+            List<UserRegistrationRequestDTO> chunk = invocation.getArgument(0);
+            if (attempts.incrementAndGet() == 2) {
+                releaseOtherBatch.countDown();
+            }
+            hashingExecutor.executeAll(chunk.stream().<Callable<String>>map(request -> () -> "hash").toList());
+            return created(chunk);
+        });
+
+        try {
+            Future<List<String>> otherBatch = otherCaller.submit(() -> hashingExecutor.executeAll(List.<Callable<String>>of(() -> {
+                otherBatchRunning.countDown();
+                releaseOtherBatch.await(5, TimeUnit.SECONDS);
+                return "hash";
+            })));
+            assertTrue(otherBatchRunning.await(5, TimeUnit.SECONDS));
+
+            // Act
+            ImportReport report = userImportService.importUsers(file);
+
+            // Assert - el primer intento recibió 503 y el chunk se confirmó al liberarse el cupo
+            assertEquals(2, report.created());
+            assertTrue(attempts.get() >= 2);
+            assertEquals(1, otherBatch.get(5, TimeUnit.SECONDS).size());
+        } finally {
+            releaseOtherBatch.countDown();
+            otherCaller.shutdown();
+            hashingExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void importUsers_SaturationOutlastsMaxWait_Throws() throws Exception {
+        // Arrange
+        UserImportServiceImpl impatientImport = new UserImportServiceImpl(
+                userBatchService, new ObjectMapper(), validatorFactory.getValidator(), 2, 0);
+        Path file = tempDir.resolve("usuarios.ndjson");
+        Files.write(file, List.of(json("José Valdez", "jose.valdez@empresa.com")));
+        when(userBatchService.registerUsers(anyList()))
+                .thenThrow(new ServiceUnavailableException("Servicio temporalmente saturado, intente nuevamente", 1));
+
+        // Act & Assert
+        assertThrows(ServiceUnavailableException.class, () -> impatientImport.importUsers(file));
+        verify(userBatchService, times(1)).registerUsers(anyList());
+    }
+
+    @Test
+    void importUsers_UnsupportedExtension_Throws() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("usuarios.xml"), "<usuarios/>");
+
+        assertThrows(IllegalArgumentException.class, () -> userImportService.importUsers(file));
+    }
+
+    private List<List<UserRegistrationRequestDTO>> recordChunks() {
+        // El servicio reutiliza la lista del chunk: se copia en cada llamada
+        List<List<UserRegistrationRequestDTO>> chunks = new ArrayList<>();
+        when(userBatchService.registerUsers(anyList())).thenAnswer(invocation -> {
+            List<UserRegistrationRequestDTO> chunk = invocation.getArgument(0);
+            chunks.add(List.copyOf(chunk));
+            return created(chunk);
+        });
+        return chunks;
+    }
+
+    private static List<List<String>> emails(List<List<UserRegistrationRequestDTO>> chunks) {
+        return chunks.stream()
+                .map(chunk -> chunk.stream().map(UserRegistrationRequestDTO::getEmail).toList())
+                .toList();
+    }
+
+    private static BatchRegistrationResponseDTO created(List<?> chunk) {
+        return new BatchRegistrationResponseDTO().total(chunk.size()).created(chunk.size()).failed(0);
+    }
+
+    private static String json(String name, String email) {
+        return """
+                {"name": "%s", "email": "%s", "password": "SecurePass1@", "phones": [{"number": "1234567", "citycode": "1", "contrycode": "57"}]}"""
+                .formatted(name, email);
+    }
+}
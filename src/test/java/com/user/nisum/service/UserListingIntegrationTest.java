@@ -0,0 +1,99 @@
+package com.user.nisum.service;
+
+import com.user.nisum.dtos.PhoneDTODTO;
+import com.user.nisum.dtos.UserPageDTO;
+import com.user.nisum.dtos.UserRegistrationRequestDTO;
+import com.user.nisum.dtos.UserSummaryDTO;
+import com.user.nisum.entity.User;
+import com.user.nisum.exception.InvalidRequestException;
+import com.user.nisum.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@AutoConfigureTestDatabase
+@SpringBootTest(properties = "password.bcrypt.strength=4")
+class UserListingIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserBatchService userBatchService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void listUsers_PagesByKeysetAndFilters() {
+        // Arrange - 5 usuarios creados después del inicio del test, uno deshabilitado
+        OffsetDateTime start = LocalDateTime.now().minusSeconds(1).atOffset(ZoneOffset.UTC);
+        userBatchService.registerUsers(IntStream.range(0, 5)
+                .mapToObj(i -> request("Usuario Listado " + i, "listado" + i + "@keyset.cl"))
+                .toList());
+        User disabled = userRepository.findByEmail("listado3@keyset.cl").orElseThrow();
+        disabled.setIsActive(false);
+        userRepository.save(disabled);
+
+        // Act - páginas de 2 hasta agotar el cursor
+        List<UserSummaryDTO> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            UserPageDTO page = userService.listUsers(null, start, null, cursor, 2);
+            seen.addAll(page.getItems());
+            pageSizes.add(page.getItems().size());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Assert - todos los usuarios, una sola vez, en orden (created, id)
+        List<String> emails = seen.stream().map(UserSummaryDTO::getEmail).filter(e -> e.endsWith("@keyset.cl")).toList();
+        assertEquals(5, emails.size());
+        assertEquals(5, emails.stream().distinct().count());
+        assertEquals(List.of(2, 2, 1), pageSizes.subList(pageSizes.size() - 3, pageSizes.size()));
+        for (int i = 1; i < seen.size(); i++) {
+            UserSummaryDTO previous = seen.get(i - 1);
+            UserSummaryDTO current = seen.get(i);
+            int byCreated = previous.getCreated().compareTo(current.getCreated());
+            assertTrue(byCreated < 0 || (byCreated == 0 && previous.getId().compareTo(current.getId()) != 0));
+        }
+        assertEquals(1, seen.get(0).getPhones().size());
+
+        UserPageDTO inactive = userService.listUsers(false, start, null, null, 10);
+        assertEquals(List.of("listado3@keyset.cl"), inactive.getItems().stream().map(UserSummaryDTO::getEmail).toList());
+        assertFalse(inactive.getItems().get(0).getIsactive());
+        assertNull(inactive.getNextCursor());
+
+        UserPageDTO beforeStart = userService.listUsers(null, null, start, null, 10);
+        assertTrue(beforeStart.getItems().stream().noneMatch(user -> user.getEmail().endsWith("@keyset.cl")));
+    }
+
+    @Test
+    void listUsers_InvalidCursor_ThrowsInvalidRequest() {
+        assertThrows(InvalidRequestException.class, () -> userService.listUsers(null, null, null, "no-es-un-cursor", 10));
+    }
+
+    private static UserRegistrationRequestDTO request(String name, String email) {
+        PhoneDTODTO phone = new PhoneDTODTO();
+        phone.setNumber("1234567");
+        phone.setCitycode("1");
+        phone.setContrycode("57");
+
+        UserRegistrationRequestDTO request = new UserRegistrationRequestDTO();
+        request.setName(name);
+        request.setEmail(email);
+        request.setPassword("SecurePass1@");
+        request.setPhones(List.of(phone));
+        return request;
+    }
+}
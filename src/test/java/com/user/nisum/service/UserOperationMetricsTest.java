@@ -0,0 +1,64 @@
+package com.user.nisum.service;
+
+import com.user.nisum.service.impl.UserOperationMetrics;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static com.user.nisum.service.impl.UserOperationMetrics.Operation.LOGIN;
+import static com.user.nisum.service.impl.UserOperationMetrics.Operation.REGISTRATION;
+import static com.user.nisum.service.impl.UserOperationMetrics.Outcome.BAD_CREDENTIALS;
+import static com.user.nisum.service.impl.UserOperationMetrics.Outcome.SUCCESS;
+import static com.user.nisum.service.impl.UserOperationMetrics.Stage.PASSWORD_HASH;
+import static com.user.nisum.service.impl.UserOperationMetrics.Stage.PASSWORD_VERIFY;
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserOperationMetricsTest {
+
+    private PrometheusMeterRegistry registry;
+    private UserOperationMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        metrics = new UserOperationMetrics(registry);
+    }
+
+    @Test
+    void scrape_ExposesStageHistogramsWithOutcome() {
+        // Act
+        long start = System.nanoTime();
+        metrics.recordStage(REGISTRATION, PASSWORD_HASH, SUCCESS, start);
+        metrics.recordOperation(REGISTRATION, SUCCESS, start);
+
+        // Assert
+        String scrape = registry.scrape();
+        assertTrue(scrape.contains("user_operation_stage_seconds_bucket{"), scrape);
+        assertTrue(scrape.contains("stage=\"password_hash\""), scrape);
+        assertTrue(scrape.contains("user_operation_seconds_bucket{"), scrape);
+        assertTrue(scrape.contains("operation=\"registration\",outcome=\"success\""), scrape);
+    }
+
+    @Test
+    void recordStage_AfterFirstUse_DoesNotAllocate() {
+        // Arrange - la primera medición registra el timer
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long stage = metrics.recordStage(LOGIN, PASSWORD_VERIFY, BAD_CREDENTIALS, System.nanoTime());
+        long before = threads.getCurrentThreadAllocatedBytes();
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            stage = metrics.recordStage(LOGIN, PASSWORD_VERIFY, BAD_CREDENTIALS, stage);
+        }
+
+        // Assert - un solo objeto por medición serían más de 160 KB
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        assertTrue(allocated < 16 * 1024, "bytes asignados: " + allocated);
+        assertEquals(10_001, registry.get("user.operation.stage")
+                .tags("operation", "login", "stage", "password_verify", "outcome", "bad_credentials")
+                .timer().count());
+    }
+}
@@ -0,0 +1,198 @@
+package com.user.nisum.service;
+
+import com.user.nisum.config.SecondLevelCacheConfig;
+import com.user.nisum.dtos.PhoneDTODTO;
+import com.user.nisum.dtos.UserRegistrationRequestDTO;
+import com.user.nisum.dtos.UserRegistrationResponseDTO;
+import com.user.nisum.entity.User;
+import com.user.nisum.repository.UserRepository;
+import com.user.nisum.service.impl.RegisteredEmailFilter;
+import com.user.nisum.service.impl.UserResponseCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@AutoConfigureTestDatabase
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "password.bcrypt.strength=4"
+})
+class UserReadPathIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserResponseCache userResponseCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RegisteredEmailFilter registeredEmailFilter;
+
+    private Statistics statistics;
+    private UserRegistrationResponseDTO registered;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        registered = userService.registerUser(request("lectura." + System.nanoTime() + "@fetch.cl"));
+        statistics.clear();
+    }
+
+    @Test
+    void getUserById_WarmSecondLevelCache_NoStatements() {
+        // Arrange - la primera lectura carga la colección de teléfonos en la caché
+        entityManagerFactory.getCache().evictAll();
+        userService.getUserById(registered.getId());
+        assertTrue(statistics.getPrepareStatementCount() > 0);
+        statistics.clear();
+
+        // Act
+        UserRegistrationResponseDTO result = userService.getUserById(registered.getId());
+
+        // Assert
+        assertEquals(2, result.getPhones().size());
+        assertEquals(0, statistics.getPrepareStatementCount(), "Sentencias preparadas");
+        assertEquals(1, statistics.getDomainDataRegionStatistics(SecondLevelCacheConfig.USER_REGION).getHitCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics(SecondLevelCacheConfig.USER_PHONES_REGION).getHitCount());
+        assertEquals(2, statistics.getDomainDataRegionStatistics(SecondLevelCacheConfig.PHONE_REGION).getHitCount());
+    }
+
+    @Test
+    void getUserById_AfterUpdateLastLogin_ReadsUpdatedStateFromCache() {
+        // Arrange
+        userService.getUserById(registered.getId());
+        UserRegistrationResponseDTO updated = userService.updateLastLogin(registered.getId());
+        statistics.clear();
+
+        // Act
+        UserRegistrationResponseDTO result = userService.getUserById(registered.getId());
+
+        // Assert
+        assertEquals(updated.getLastLogin(), result.getLastLogin());
+        assertEquals(0, statistics.getPrepareStatementCount(), "Sentencias preparadas");
+    }
+
+    @Test
+    void getUserByEmail_LoadsUserAndPhonesInOneStatement() {
+        // Arrange - el registro deja la respuesta en caché
+        userResponseCache.invalidate(registered.getEmail());
+
+        // Act
+        UserRegistrationResponseDTO result = userService.getUserByEmail(registered.getEmail());
+
+        // Assert
+        assertEquals(2, result.getPhones().size());
+        assertStatements(1);
+    }
+
+    @Test
+    void getUserByEmail_AfterRegistration_ServedFromCacheWithoutStatements() {
+        // Act
+        UserRegistrationResponseDTO result = userService.getUserByEmail(registered.getEmail());
+
+        // Assert
+        assertEquals(registered.getToken(), result.getToken());
+        assertStatements(0);
+    }
+
+    @Test
+    void getUserByEmail_AfterLogin_ReturnsNewToken() {
+        // Arrange
+        userService.getUserByEmail(registered.getEmail());
+        UserRegistrationResponseDTO loggedIn = userService.login(registered.getEmail(), "SecurePass1@");
+
+        // Act
+        UserRegistrationResponseDTO result = userService.getUserByEmail(registered.getEmail());
+
+        // Assert
+        assertEquals(loggedIn.getToken(), result.getToken());
+    }
+
+    @Test
+    void updateLastLogin_OneSelectAndOneUpdate() {
+        // Act
+        UserRegistrationResponseDTO result = userService.updateLastLogin(registered.getId());
+
+        // Assert
+        assertEquals(2, result.getPhones().size());
+        assertStatements(2);
+        assertEquals(1, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    void login_OneSelectAndOneUpdate() {
+        // Act
+        UserRegistrationResponseDTO result = userService.login(registered.getEmail(), "SecurePass1@");
+
+        // Assert
+        assertEquals(2, result.getPhones().size());
+        assertStatements(2);
+        assertEquals(1, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    void isEmailAvailable_NewEmail_ResolvedWithoutStatements() {
+        // Act & Assert
+        assertTrue(userService.isEmailAvailable("nuevo." + System.nanoTime() + "@fetch.cl"));
+        assertFalse(userService.isEmailAvailable(registered.getEmail()));
+        assertEquals(1, statistics.getPrepareStatementCount(), "Solo el correo registrado consulta la base");
+    }
+
+    @Test
+    void isEmailAvailable_RegisteredByAnotherInstance_UnavailableAfterRefresh() {
+        // Arrange - alta directa en la tabla, como la haría otra instancia
+        String email = "otra.instancia." + System.nanoTime() + "@fetch.cl";
+        userRepository.saveAndFlush(User.builder()
+                .name("Otra Instancia")
+                .email(email)
+                .password("hash")
+                .phones(List.of())
+                .build());
+        assertTrue(userService.isEmailAvailable(email), "Antes del refresco el filtro no conoce el alta");
+
+        // Act
+        registeredEmailFilter.refresh();
+
+        // Assert
+        assertFalse(userService.isEmailAvailable(email));
+    }
+
+    // Sin consultas adicionales por la colección lazy de teléfonos
+    private void assertStatements(long expected) {
+        assertEquals(expected, statistics.getPrepareStatementCount(), "Sentencias preparadas");
+        assertEquals(0, statistics.getCollectionFetchCount(), "Cargas diferidas de colecciones");
+    }
+
+    private static UserRegistrationRequestDTO request(String email) {
+        PhoneDTODTO home = new PhoneDTODTO();
+        home.setNumber("1234567");
+        home.setCitycode("1");
+        home.setContrycode("57");
+        PhoneDTODTO mobile = new PhoneDTODTO();
+        mobile.setNumber("7654321");
+        mobile.setCitycode("9");
+        mobile.setContrycode("56");
+
+        UserRegistrationRequestDTO request = new UserRegistrationRequestDTO();
+        request.setName("Usuario Lectura");
+        request.setEmail(email);
+        request.setPassword("SecurePass1@");
+        request.setPhones(List.of(home, mobile));
+        return request;
+    }
+}
@@ -0,0 +1,99 @@
+package com.user.nisum.service;
+
+import com.user.nisum.dtos.UserRegistrationResponseDTO;
+import com.user.nisum.service.impl.UserResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserResponseCacheTest {
+
+    private static final OffsetDateTime MODIFIED = OffsetDateTime.of(2024, 5, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserResponseCache(100, 300, meterRegistry);
+    }
+
+    @Test
+    void getOrLoad_SameEmail_LoadsOnceAndRecordsMetrics() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        cache.getOrLoad("jose.valdez@empresa.com", () -> {
+            loads.incrementAndGet();
+            return response("jose.valdez@empresa.com", "token-1", MODIFIED);
+        });
+        UserRegistrationResponseDTO result = cache.getOrLoad("jose.valdez@empresa.com", () -> {
+            loads.incrementAndGet();
+            return response("jose.valdez@empresa.com", "token-2", MODIFIED);
+        });
+
+        // Assert
+        assertEquals(1, loads.get());
+        assertEquals("token-1", result.getToken());
+        assertEquals(1L, meterRegistry.get("user.email.cache.load").timer().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "user.email").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void getOrLoad_EmailDifferingInCase_DoesNotReturnOtherUser() {
+        // Arrange
+        cache.getOrLoad("Jose.Valdez@empresa.com", () -> response("Jose.Valdez@empresa.com", "token-a", MODIFIED));
+
+        // Act
+        UserRegistrationResponseDTO result = cache.getOrLoad("jose.valdez@empresa.com",
+                () -> response("jose.valdez@empresa.com", "token-b", MODIFIED));
+
+        // Assert
+        assertEquals("token-b", result.getToken());
+    }
+
+    @Test
+    void getOrLoad_WriteDuringLoad_KeepsWrittenResponse() {
+        // Arrange - una escritura se confirma mientras otra petición lee el estado previo
+        UserRegistrationResponseDTO stale = response("jose.valdez@empresa.com", "viejo", MODIFIED);
+
+        // Act
+        cache.getOrLoad("jose.valdez@empresa.com", () -> {
+            cache.refreshAfterCommit(response("jose.valdez@empresa.com", "nuevo", MODIFIED));
+            return stale;
+        });
+        UserRegistrationResponseDTO result = cache.getOrLoad("jose.valdez@empresa.com", () -> fail("No debe consultar la base"));
+
+        // Assert
+        assertEquals("nuevo", result.getToken());
+    }
+
+    @Test
+    void invalidate_RemovesEntry() {
+        // Arrange
+        cache.refreshAfterCommit(response("jose.valdez@empresa.com", "token", MODIFIED));
+
+        // Act
+        cache.invalidate(" JOSE.VALDEZ@empresa.com ");
+
+        // Assert
+        assertEquals(0, cache.size());
+    }
+
+    private static UserRegistrationResponseDTO response(String email, String token, OffsetDateTime modified) {
+        UserRegistrationResponseDTO response = new UserRegistrationResponseDTO();
+        response.setEmail(email);
+        response.setToken(token);
+        response.setModified(modified);
+        return response;
+    }
+}
@@ -10,15 +10,24 @@ import com.user.nisum.exception.ResourceNotFoundException;
 import com.user.nisum.mapper.UserMapper;
 import com.user.nisum.repository.UserRepository;
 import com.user.nisum.service.JwtService;
+import com.user.nisum.service.impl.LastLoginWriteBehindBuffer;
+import com.user.nisum.service.impl.RegisteredEmailFilter;
+import com.user.nisum.service.impl.UserOperationMetrics;
+import com.user.nisum.service.impl.UserResponseCache;
 import com.user.nisum.service.impl.UserServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
@@ -27,6 +36,7 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -44,6 +54,20 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private RegisteredEmailFilter registeredEmailFilter;
+
+    @Mock
+    private LastLoginWriteBehindBuffer lastLoginBuffer;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private UserResponseCache userResponseCache = new UserResponseCache(100, 300, new SimpleMeterRegistry());
+
+    @Spy
+    private UserOperationMetrics metrics = new UserOperationMetrics(meterRegistry);
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -102,12 +126,11 @@ class UserServiceTest {
     @Test
     void registerUser_Success() {
         // Arrange
-        when(userRepository.existsByEmail(request.getEmail())).thenReturn(false);
         when(userMapper.toEntity(request)).thenReturn(user);
         when(passwordEncoder.encode(request.getPassword())).thenReturn("encodedPassword");
-        when(jwtService.generateToken(user.getId(), user.getEmail())).thenReturn("jwt.token.here");
+        when(jwtService.generateToken(any(UUID.class), eq(user.getEmail()))).thenReturn("jwt.token.here");
         when(userMapper.toPhoneEntityList(request.getPhones())).thenReturn(List.of(new Phone()));
-        when(userRepository.save(any(User.class))).thenReturn(savedUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(savedUser);
         when(userMapper.toResponse(savedUser)).thenReturn(response);
 
         // Act
@@ -117,18 +140,25 @@ class UserServiceTest {
         assertNotNull(result);
         assertEquals("José Francisco Valdez", result.getName());
         assertEquals("jose.valdez@empresa.com", result.getEmail());
-        verify(userRepository).existsByEmail(request.getEmail());
         verify(userMapper).toEntity(request);
         verify(passwordEncoder).encode(request.getPassword());
-        verify(jwtService).generateToken(user.getId(), user.getEmail());
-        verify(userRepository, times(2)).save(any(User.class));
+        verify(jwtService).generateToken(any(UUID.class), eq(user.getEmail()));
+        verify(userRepository).saveAndFlush(any(User.class));
+        verify(userRepository, never()).save(any());
         verify(userMapper).toResponse(savedUser);
+        verify(registeredEmailFilter).add(savedUser.getEmail());
     }
 
     @Test
     void registerUser_DuplicateEmail_ThrowsBusinessRuleException() {
-        // Arrange
-        when(userRepository.existsByEmail(request.getEmail())).thenReturn(true);
+        // Arrange - la restricción única del email rechaza el INSERT
+        when(userMapper.toEntity(request)).thenReturn(user);
+        when(passwordEncoder.encode(request.getPassword())).thenReturn("encodedPassword");
+        when(jwtService.generateToken(any(UUID.class), eq(user.getEmail()))).thenReturn("jwt.token.here");
+        when(userMapper.toPhoneEntityList(request.getPhones())).thenReturn(List.of(new Phone()));
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new SQLException("Unique index or primary key violation: \"PUBLIC.UK_USERS_EMAIL_INDEX_4 ON PUBLIC.USERS(EMAIL)\"")));
 
         // Act & Assert
         BusinessRuleException exception = assertThrows(BusinessRuleException.class, () -> {
@@ -136,9 +166,63 @@ class UserServiceTest {
         });
 
         assertEquals("El correo ya registrado", exception.getMessage());
-        verify(userRepository).existsByEmail(request.getEmail());
-        verify(userMapper, never()).toEntity(any());
-        verify(userRepository, never()).save(any());
+        verify(userRepository, never()).existsByEmail(any());
+        verify(userMapper, never()).toResponse(any());
+        // Solo la etapa que detectó el duplicado y la operación llevan el resultado
+        assertEquals(1, stageCount("registration", "persist", "duplicate_email"));
+        assertEquals(1, stageCount("registration", "password_hash", "success"));
+        assertEquals(1, meterRegistry.get("user.operation")
+                .tags("operation", "registration", "outcome", "duplicate_email").timer().count());
+    }
+
+    @Test
+    void registerUser_OtherConstraintViolation_Propagates() {
+        // Arrange
+        when(userMapper.toEntity(request)).thenReturn(user);
+        when(passwordEncoder.encode(request.getPassword())).thenReturn("encodedPassword");
+        when(jwtService.generateToken(any(UUID.class), eq(user.getEmail()))).thenReturn("jwt.token.here");
+        when(userMapper.toPhoneEntityList(request.getPhones())).thenReturn(List.of(new Phone()));
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new SQLException("NULL not allowed for column \"NUMBER\"")));
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () -> userService.registerUser(request));
+    }
+
+    @Test
+    void registerUser_KnownDuplicate_RejectedBeforeHashing() {
+        // Arrange - el filtro no descarta el correo y la base lo confirma
+        when(registeredEmailFilter.mightBeRegistered(request.getEmail())).thenReturn(true);
+        when(userRepository.existsByEmail(request.getEmail())).thenReturn(true);
+
+        // Act & Assert
+        BusinessRuleException exception = assertThrows(BusinessRuleException.class, () -> userService.registerUser(request));
+
+        assertEquals("El correo ya registrado", exception.getMessage());
+        verify(passwordEncoder, never()).encode(any());
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void isEmailAvailable_FilterNegative_SkipsDatabase() {
+        // Arrange
+        when(registeredEmailFilter.mightBeRegistered("nuevo@empresa.com")).thenReturn(false);
+
+        // Act & Assert
+        assertTrue(userService.isEmailAvailable("nuevo@empresa.com"));
+        verify(userRepository, never()).existsByEmail(any());
+    }
+
+    @Test
+    void isEmailAvailable_FalsePositive_ConfirmedByDatabase() {
+        // Arrange
+        when(registeredEmailFilter.mightBeRegistered("nuevo@empresa.com")).thenReturn(true);
+        when(userRepository.existsByEmail("nuevo@empresa.com")).thenReturn(false);
+
+        // Act & Assert
+        assertTrue(userService.isEmailAvailable("nuevo@empresa.com"));
+        verify(registeredEmailFilter).recordFalsePositive();
     }
 
     @Test
@@ -182,12 +266,11 @@ class UserServiceTest {
         multiPhoneResponse.setIsactive(true);
         multiPhoneResponse.setPhones(List.of(phone1, phone2));
 
-        when(userRepository.existsByEmail(multiPhoneRequest.getEmail())).thenReturn(false);
         when(userMapper.toEntity(multiPhoneRequest)).thenReturn(multiPhoneUser);
         when(passwordEncoder.encode(multiPhoneRequest.getPassword())).thenReturn("encodedPassword");
-        when(jwtService.generateToken(multiPhoneUser.getId(), multiPhoneUser.getEmail())).thenReturn("jwt.token.here");
+        when(jwtService.generateToken(any(UUID.class), eq(multiPhoneUser.getEmail()))).thenReturn("jwt.token.here");
         when(userMapper.toPhoneEntityList(multiPhoneRequest.getPhones())).thenReturn(List.of(new Phone(), new Phone()));
-        when(userRepository.save(any(User.class))).thenReturn(multiPhoneUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(multiPhoneUser);
         when(userMapper.toResponse(multiPhoneUser)).thenReturn(multiPhoneResponse);
 
         // Act
@@ -200,41 +283,44 @@ class UserServiceTest {
         assertEquals(2, result.getPhones().size());
         assertEquals("9876543", result.getPhones().get(0).getNumber());
         assertEquals("5555555", result.getPhones().get(1).getNumber());
-        verify(userRepository).existsByEmail(multiPhoneRequest.getEmail());
         verify(userMapper).toEntity(multiPhoneRequest);
         verify(passwordEncoder).encode(multiPhoneRequest.getPassword());
-        verify(jwtService).generateToken(multiPhoneUser.getId(), multiPhoneUser.getEmail());
-        verify(userRepository, times(2)).save(any(User.class));
+        verify(jwtService).generateToken(any(UUID.class), eq(multiPhoneUser.getEmail()));
+        verify(userRepository).saveAndFlush(any(User.class));
+        verify(userRepository, never()).save(any());
         verify(userMapper).toResponse(multiPhoneUser);
     }
 
     @Test
     void registerUser_JwtTokenGeneration_Verification() {
         // Arrange
-        when(userRepository.existsByEmail(request.getEmail())).thenReturn(false);
         when(userMapper.toEntity(request)).thenReturn(user);
         when(passwordEncoder.encode(request.getPassword())).thenReturn("encodedPassword");
-        when(jwtService.generateToken(user.getId(), user.getEmail())).thenReturn("jwt.token.here");
+        when(jwtService.generateToken(any(UUID.class), eq(user.getEmail()))).thenReturn("jwt.token.here");
         when(userMapper.toPhoneEntityList(request.getPhones())).thenReturn(List.of(new Phone()));
-        when(userRepository.save(any(User.class))).thenReturn(savedUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(savedUser);
         when(userMapper.toResponse(savedUser)).thenReturn(response);
 
         // Act
         userService.registerUser(request);
 
-        // Assert
-        verify(jwtService).generateToken(user.getId(), user.getEmail());
+        // Assert - el token se firma con el ID asignado antes del único INSERT
+        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
+        verify(userRepository).saveAndFlush(userCaptor.capture());
+        User persisted = userCaptor.getValue();
+        assertNotNull(persisted.getId());
+        assertEquals("jwt.token.here", persisted.getToken());
+        verify(jwtService).generateToken(persisted.getId(), user.getEmail());
     }
 
     @Test
     void registerUser_PasswordEncoding_Verification() {
         // Arrange
-        when(userRepository.existsByEmail(request.getEmail())).thenReturn(false);
         when(userMapper.toEntity(request)).thenReturn(user);
         when(passwordEncoder.encode(request.getPassword())).thenReturn("encodedPassword");
-        when(jwtService.generateToken(user.getId(), user.getEmail())).thenReturn("jwt.token.here");
+        when(jwtService.generateToken(any(UUID.class), eq(user.getEmail()))).thenReturn("jwt.token.here");
         when(userMapper.toPhoneEntityList(request.getPhones())).thenReturn(List.of(new Phone()));
-        when(userRepository.save(any(User.class))).thenReturn(savedUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(savedUser);
         when(userMapper.toResponse(savedUser)).thenReturn(response);
 
         // Act
@@ -280,7 +366,7 @@ class UserServiceTest {
     void getUserByEmail_Success() {
         // Arrange
         String email = "jose.valdez@empresa.com";
-        when(userRepository.findByEmail(email)).thenReturn(java.util.Optional.of(savedUser));
+        when(userRepository.findReadOnlyWithPhonesByEmail(email)).thenReturn(java.util.Optional.of(savedUser));
         when(userMapper.toResponse(savedUser)).thenReturn(response);
 
         // Act
@@ -289,7 +375,7 @@ class UserServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("José Francisco Valdez", result.getName());
-        verify(userRepository).findByEmail(email);
+        verify(userRepository).findReadOnlyWithPhonesByEmail(email);
         verify(userMapper).toResponse(savedUser);
     }
 
@@ -297,7 +383,7 @@ class UserServiceTest {
     void getUserByEmail_NotFound_ThrowsResourceNotFoundException() {
         // Arrange
         String email = "nonexistent@example.com";
-        when(userRepository.findByEmail(email)).thenReturn(java.util.Optional.empty());
+        when(userRepository.findReadOnlyWithPhonesByEmail(email)).thenReturn(java.util.Optional.empty());
 
         // Act & Assert
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
@@ -305,7 +391,89 @@ class UserServiceTest {
         });
 
         assertEquals("Usuario no encontrado con email: " + email, exception.getMessage());
-        verify(userRepository).findByEmail(email);
+        verify(userRepository).findReadOnlyWithPhonesByEmail(email);
+    }
+
+    @Test
+    void getUserByEmail_SecondCall_ServedFromCache() {
+        // Arrange
+        String email = "jose.valdez@empresa.com";
+        when(userRepository.findReadOnlyWithPhonesByEmail(email)).thenReturn(java.util.Optional.of(savedUser));
+        when(userMapper.toResponse(savedUser)).thenReturn(response);
+
+        // Act
+        userService.getUserByEmail(email);
+        UserRegistrationResponseDTO result = userService.getUserByEmail(email);
+
+        // Assert
+        assertSame(response, result);
+        verify(userRepository, times(1)).findReadOnlyWithPhonesByEmail(email);
+    }
+
+    @Test
+    void getUserByEmail_AfterLogin_ReturnsRefreshedResponse() {
+        // Arrange
+        String email = "jose.valdez@empresa.com";
+        String password = "SecurePass1@";
+        UserRegistrationResponseDTO loginResponse = new UserRegistrationResponseDTO();
+        loginResponse.setId(savedUser.getId());
+        loginResponse.setEmail(email);
+        loginResponse.setToken("nuevo-token");
+        loginResponse.setModified(response.getModified());
+
+        when(userRepository.findReadOnlyWithPhonesByEmail(email)).thenReturn(java.util.Optional.of(savedUser));
+        when(userMapper.toResponse(savedUser)).thenReturn(response);
+        userService.getUserByEmail(email);
+
+        when(userRepository.findWithPhonesByEmail(email)).thenReturn(java.util.Optional.of(savedUser));
+        when(passwordEncoder.matches(password, savedUser.getPassword())).thenReturn(true);
+        when(jwtService.generateToken(savedUser.getId(), email)).thenReturn("nuevo-token");
+        when(userRepository.saveAndFlush(savedUser)).thenReturn(savedUser);
+        when(userMapper.toResponse(savedUser)).thenReturn(loginResponse);
+
+        // Act
+        userService.login(email, password);
+        UserRegistrationResponseDTO result = userService.getUserByEmail(email);
+
+        // Assert
+        assertEquals("nuevo-token", result.getToken());
+        verify(userRepository, times(1)).findReadOnlyWithPhonesByEmail(email);
+    }
+
+    @Test
+    void updateLastLogin_Success() {
+        // Arrange
+        UUID userId = savedUser.getId();
+        when(userRepository.findWithPhonesById(userId)).thenReturn(java.util.Optional.of(savedUser));
+        when(userRepository.saveAndFlush(savedUser)).thenReturn(savedUser);
+        when(userMapper.toResponse(savedUser)).thenReturn(response);
+
+        // Act
+        userService.updateLastLogin(userId);
+
+        // Assert
+        verify(userRepository).saveAndFlush(savedUser);
+        verify(lastLoginBuffer, never()).record(any(), any());
+    }
+
+    @Test
+    void updateLastLogin_WriteBehind_RecordsInBufferWithoutSaving() {
+        // Arrange
+        UUID userId = savedUser.getId();
+        LocalDateTime previousLastLogin = savedUser.getLastLogin();
+        when(lastLoginBuffer.isEnabled()).thenReturn(true);
+        when(userRepository.findById(userId)).thenReturn(java.util.Optional.of(savedUser));
+        when(userMapper.toResponse(savedUser)).thenReturn(response);
+
+        // Act
+        UserRegistrationResponseDTO result = userService.updateLastLogin(userId);
+
+        // Assert
+        ArgumentCaptor<LocalDateTime> lastLogin = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(lastLoginBuffer).record(eq(userId), lastLogin.capture());
+        assertEquals(lastLogin.getValue().atOffset(ZoneOffset.UTC), result.getLastLogin());
+        assertEquals(previousLastLogin, savedUser.getLastLogin());
+        verify(userRepository, never()).save(any());
     }
 
     @Test
@@ -315,10 +483,10 @@ class UserServiceTest {
         String password = "SecurePass1@";
         String newToken = "new.jwt.token.here";
         
-        when(userRepository.findByEmail(email)).thenReturn(java.util.Optional.of(savedUser));
+        when(userRepository.findWithPhonesByEmail(email)).thenReturn(java.util.Optional.of(savedUser));
         when(passwordEncoder.matches(password, savedUser.getPassword())).thenReturn(true);
         when(jwtService.generateToken(savedUser.getId(), savedUser.getEmail())).thenReturn(newToken);
-        when(userRepository.save(any(User.class))).thenReturn(savedUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(savedUser);
         when(userMapper.toResponse(savedUser)).thenReturn(response);
 
         // Act
@@ -327,20 +495,43 @@ class UserServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("José Francisco Valdez", result.getName());
-        verify(userRepository).findByEmail(email);
+        verify(userRepository).findWithPhonesByEmail(email);
         verify(passwordEncoder).matches(password, savedUser.getPassword());
         verify(jwtService).generateToken(savedUser.getId(), savedUser.getEmail());
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
         verify(userMapper).toResponse(savedUser);
     }
 
+    @Test
+    void login_OffTargetHash_RehashesPassword() {
+        // Arrange
+        String email = "jose.valdez@empresa.com";
+        String password = "SecurePass1@";
+
+        when(userRepository.findWithPhonesByEmail(email)).thenReturn(java.util.Optional.of(savedUser));
+        when(passwordEncoder.matches(password, "encodedPassword")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("encodedPassword")).thenReturn(true);
+        when(passwordEncoder.encode(password)).thenReturn("{bcrypt}rehashedPassword");
+        when(jwtService.generateToken(savedUser.getId(), savedUser.getEmail())).thenReturn("new.jwt.token.here");
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(savedUser);
+        when(userMapper.toResponse(savedUser)).thenReturn(response);
+
+        // Act
+        userService.login(email, password);
+
+        // Assert
+        assertEquals("{bcrypt}rehashedPassword", savedUser.getPassword());
+        verify(passwordEncoder).encode(password);
+        verify(userRepository).saveAndFlush(savedUser);
+    }
+
     @Test
     void login_UserNotFound_ThrowsBusinessRuleException() {
         // Arrange
         String email = "nonexistent@example.com";
         String password = "SecurePass1@";
         
-        when(userRepository.findByEmail(email)).thenReturn(java.util.Optional.empty());
+        when(userRepository.findWithPhonesByEmail(email)).thenReturn(java.util.Optional.empty());
 
         // Act & Assert
         BusinessRuleException exception = assertThrows(BusinessRuleException.class, () -> {
@@ -348,7 +539,7 @@ class UserServiceTest {
         });
 
         assertEquals("Credenciales inválidas", exception.getMessage());
-        verify(userRepository).findByEmail(email);
+        verify(userRepository).findWithPhonesByEmail(email);
         verify(passwordEncoder, never()).matches(any(), any());
         verify(jwtService, never()).generateToken(any(), any());
     }
@@ -359,7 +550,7 @@ class UserServiceTest {
         String email = "jose.valdez@empresa.com";
         String password = "WrongPassword";
         
-        when(userRepository.findByEmail(email)).thenReturn(java.util.Optional.of(savedUser));
+        when(userRepository.findWithPhonesByEmail(email)).thenReturn(java.util.Optional.of(savedUser));
         when(passwordEncoder.matches(password, savedUser.getPassword())).thenReturn(false);
 
         // Act & Assert
@@ -368,9 +559,17 @@ class UserServiceTest {
         });
 
         assertEquals("Credenciales inválidas", exception.getMessage());
-        verify(userRepository).findByEmail(email);
+        verify(userRepository).findWithPhonesByEmail(email);
         verify(passwordEncoder).matches(password, savedUser.getPassword());
         verify(jwtService, never()).generateToken(any(), any());
         verify(userRepository, never()).save(any());
+        assertEquals(1, stageCount("login", "password_verify", "bad_credentials"));
+        assertNull(meterRegistry.find("user.operation.stage").tags("operation", "login", "stage", "jwt_sign").timer());
+    }
+
+    private long stageCount(String operation, String stage, String outcome) {
+        return meterRegistry.get("user.operation.stage")
+                .tags("operation", operation, "stage", stage, "outcome", outcome)
+                .timer().count();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package com.user.nisum.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara durante una acción y falla si no
+ * son exactamente las esperadas. Sirve para fijar el costo en base de datos de cada
+ * endpoint: un N+1 nuevo cambia el conteo y rompe el build.
+ *
+ * Se registra como {@code StatementInspector} con {@link #PROPERTY} y solo cuenta las
+ * sentencias del hilo que ejecuta la acción, así que las tareas programadas no
+ * interfieren. Las sentencias de JdbcTemplate no pasan por Hibernate y no se cuentan.
+ */
+public final class SqlStatementCounter implements StatementInspector {
+
+    public static final String PROPERTY =
+            "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.user.nisum.support.SqlStatementCounter";
+
+    private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> recorded = RECORDED.get();
+        if (recorded != null && !isSequenceCall(sql)) {
+            recorded.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Ejecuta la acción y comprueba que preparó exactamente {@code expected} sentencias.
+     */
+    public static <T> T expectStatements(int expected, String description, ThrowingSupplier<T> action) throws Throwable {
+        List<String> recorded = new ArrayList<>();
+        RECORDED.set(recorded);
+        T result;
+        try {
+            result = action.get();
+        } finally {
+            RECORDED.remove();
+        }
+        if (recorded.size() != expected) {
+            String statements = IntStream.range(0, recorded.size())
+                    .mapToObj(i -> "  " + (i + 1) + ". " + recorded.get(i))
+                    .collect(Collectors.joining(System.lineSeparator()));
+            fail(String.format("%s: se esperaban %d sentencias SQL y se prepararon %d%n%s",
+                    description, expected, recorded.size(), statements));
+        }
+        return result;
+    }
+
+    // Los IDs de teléfonos se reservan de a bloques: la consulta a la secuencia aparece
+    // cada tantas inserciones según lo que corrió antes, no según el endpoint
+    private static boolean isSequenceCall(String sql) {
+        String normalized = sql.toLowerCase(Locale.ROOT);
+        return normalized.contains("next value for") || normalized.contains("nextval(");
+    }
+}